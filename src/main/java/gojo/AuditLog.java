@@ -0,0 +1,477 @@
+package gojo;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Records every change to a task list in an append-only log, so that the
+ * history of a task and the list as it was at an earlier time can be looked up.
+ * <p>
+ * The log is a series of numbered segment files next to the data file. Each
+ * record is one line, "timestamp|op|index|task file format", e.g.
+ * "2030-01-16T14:20|MARK|2|T | 1 | read book". Every segment starts with a
+ * checkpoint, a copy of the whole list, and a new segment is started after
+ * every {@value #CHECKPOINT_INTERVAL} changes and after bulk changes such as
+ * IMPORT and ARCHIVE. The list at a given time is rebuilt from the last
+ * checkpoint before it, so at most one segment is replayed no matter how long
+ * the history is.
+ * </p>
+ * <p>
+ * Changes are held back until {@link #flush()}, which the engine calls
+ * whenever it saves the data file. Changes made in a transaction are therefore
+ * written at COMMIT, and those undone by ROLLBACK are never written at all.
+ * </p>
+ */
+public class AuditLog implements TaskListener {
+    // Number of changes between two checkpoints.
+    private static final int CHECKPOINT_INTERVAL = 100;
+
+    private static final String SEGMENT_SUFFIX = ".log";
+
+    /**
+     * The kinds of change that are recorded.
+     */
+    public enum Operation {
+        ADD, DELETE, MARK, UNMARK
+    }
+
+    // Names of the records that make up a checkpoint.
+    private static final String CHECKPOINT = "CHECKPOINT";
+    private static final String SNAPSHOT = "TASK";
+
+    private final String basePath;
+    private final int checkpointInterval;
+    private final Supplier<LocalDateTime> clock;
+
+    // The position of every task, to know where a removed or changed task was.
+    private final TaskPositions order = new TaskPositions();
+
+    // Changes not yet written, each without its timestamp.
+    private final List<String> pending = new ArrayList<>();
+
+    // The number of the newest segment; 0 if none has been written yet.
+    private int lastSegment;
+    private int changesSinceCheckpoint;
+    private boolean isCheckpointRequested;
+
+    // The list as loaded and whether each task was done then, if it has to be
+    // written as a checkpoint before the first change.
+    private List<Task> initialTasks;
+    private boolean[] initialDone;
+
+    /**
+     * Opens the log of a task list.
+     * <p>
+     * Nothing is written until the first change. If the list as loaded differs
+     * from the one the log ends with, for instance because the log is new or
+     * the data file was edited by hand, a checkpoint of it is written first.
+     * </p>
+     *
+     * @param basePath The path the segment files are named after.
+     * @param tasks    The task list whose changes are recorded.
+     */
+    public AuditLog(String basePath, TaskList tasks) {
+        this(basePath, tasks, CHECKPOINT_INTERVAL, LocalDateTime::now);
+    }
+
+    /**
+     * Opens the log of a task list with the given checkpoint interval and clock.
+     *
+     * @param basePath           The path the segment files are named after.
+     * @param tasks              The task list whose changes are recorded.
+     * @param checkpointInterval The number of changes between two checkpoints.
+     * @param clock              Supplies the time of each change.
+     */
+    AuditLog(String basePath, TaskList tasks, int checkpointInterval, Supplier<LocalDateTime> clock) {
+        this.basePath = basePath;
+        this.checkpointInterval = checkpointInterval;
+        this.clock = clock;
+        List<Task> loaded = tasks.getAllTasks();
+        for (Task task : loaded) {
+            order.add(task);
+        }
+        lastSegment = findLastSegment();
+
+        List<String> logged = null;
+        if (lastSegment > 0) {
+            try {
+                List<String[]> records = readSegment(lastSegment);
+                logged = fileFormats(replay(records, LocalDateTime.MAX));
+                for (String[] fields : records) {
+                    if (!fields[1].equals(CHECKPOINT) && !fields[1].equals(SNAPSHOT)) {
+                        changesSinceCheckpoint++;
+                    }
+                }
+            } catch (ChatbotExceptions e) {
+                // A damaged segment is superseded by a fresh checkpoint
+            }
+        }
+        if (!fileFormats(loaded).equals(logged)) {
+            initialTasks = new ArrayList<>(loaded);
+            initialDone = new boolean[loaded.size()];
+            for (int i = 0; i < loaded.size(); i++) {
+                initialDone[i] = loaded.get(i).isDone;
+            }
+        }
+    }
+
+    @Override
+    public void taskAdded(Task task) {
+        order.add(task);
+        record(Operation.ADD, order.indexOf(task), task);
+    }
+
+    @Override
+    public void taskRemoved(Task task) {
+        int index = order.remove(task);
+        if (index >= 0) {
+            record(Operation.DELETE, index, task);
+        }
+    }
+
+    @Override
+    public void taskChanged(Task task) {
+        int index = order.indexOf(task);
+        if (index >= 0) {
+            record(task.isDone ? Operation.MARK : Operation.UNMARK, index, task);
+        }
+    }
+
+    /**
+     * Holds back a change until the next flush. The task is rendered without
+     * caching the text on it, since a rollback reports every task as removed
+     * and added again only for the records to be discarded.
+     */
+    private void record(Operation operation, int index, Task task) {
+        pending.add(operation + "|" + index + "|" + task.renderFileFormat());
+    }
+
+    /**
+     * Asks for a checkpoint to be written at the next flush, after a change
+     * that touched many tasks at once.
+     */
+    public void requestCheckpoint() {
+        isCheckpointRequested = true;
+    }
+
+    /**
+     * Forgets the changes not yet written, such as those of a transaction that
+     * was rolled back.
+     */
+    public void discard() {
+        pending.clear();
+        isCheckpointRequested = false;
+    }
+
+    /**
+     * Writes the changes made since the last flush, stamped with the current
+     * time, and starts a new segment if a checkpoint is due.
+     *
+     * @throws ChatbotExceptions If the log cannot be written.
+     */
+    public void flush() throws ChatbotExceptions {
+        if (pending.isEmpty() && !isCheckpointRequested) {
+            return;
+        }
+        String time = clock.get().toString();
+        try {
+            if (initialTasks != null) {
+                List<String> initialState = fileFormats(initialTasks);
+                for (int i = 0; i < initialState.size(); i++) {
+                    initialState.set(i, withStatus(initialState.get(i), initialDone[i]));
+                }
+                writeCheckpoint(time, initialState);
+                initialTasks = null;
+                initialDone = null;
+            }
+            if (!pending.isEmpty()) {
+                try (BufferedWriter writer = Files.newBufferedWriter(segmentPath(lastSegment), StandardCharsets.UTF_8,
+                        StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                    for (String change : pending) {
+                        writer.write(time + "|" + change);
+                        writer.newLine();
+                    }
+                }
+                changesSinceCheckpoint += pending.size();
+                pending.clear();
+            }
+            if (isCheckpointRequested || changesSinceCheckpoint >= checkpointInterval) {
+                writeCheckpoint(time, fileFormats(order.getTasks()));
+                isCheckpointRequested = false;
+            }
+        } catch (IOException e) {
+            throw new ChatbotExceptions("Error writing audit log: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Starts a new segment with a copy of the whole list. The segment is
+     * written under a temporary name first, so a crash never leaves half a
+     * checkpoint behind.
+     */
+    private void writeCheckpoint(String time, List<String> state) throws IOException {
+        Path target = segmentPath(lastSegment + 1);
+        Path directory = target.toAbsolutePath().getParent();
+        if (directory != null) {
+            Files.createDirectories(directory);
+        }
+        Path temporary = Paths.get(target + ".tmp");
+        try (BufferedWriter writer = Files.newBufferedWriter(temporary, StandardCharsets.UTF_8)) {
+            writer.write(time + "|" + CHECKPOINT + "|" + state.size() + "|");
+            writer.newLine();
+            for (int i = 0; i < state.size(); i++) {
+                writer.write(time + "|" + SNAPSHOT + "|" + i + "|" + state.get(i));
+                writer.newLine();
+            }
+        }
+        try {
+            Files.move(temporary, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temporary, target);
+        }
+        lastSegment++;
+        changesSinceCheckpoint = 0;
+    }
+
+    /**
+     * Rebuilds the list as it was at the given time.
+     * <p>
+     * The segments are binary searched for the last one that starts before
+     * the time, and only that segment is replayed.
+     * </p>
+     *
+     * @param time The time to look back to.
+     * @return The tasks of the list at that time, in order.
+     * @throws ChatbotExceptions If the log does not go back that far or is damaged.
+     */
+    public List<Task> asOf(LocalDateTime time) throws ChatbotExceptions {
+        if (lastSegment == 0) {
+            throw new ChatbotExceptions("OOPS!!! There is no history to look back on yet.");
+        }
+        int low = 1;
+        int high = lastSegment;
+        int found = 0;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            if (startOf(middle).isAfter(time)) {
+                high = middle - 1;
+            } else {
+                found = middle;
+                low = middle + 1;
+            }
+        }
+        if (found == 0) {
+            throw new ChatbotExceptions(
+                    "OOPS!!! The history only goes back to " + DateParser.formatDateTime(startOf(1)) + ".");
+        }
+        return replay(readSegment(found), time);
+    }
+
+    /**
+     * Returns every recorded change to tasks with the same type, description
+     * and dates as the given one, oldest first.
+     *
+     * @param task The task to look up.
+     * @return The changes.
+     * @throws ChatbotExceptions If the log cannot be read.
+     */
+    public List<Entry> history(Task task) throws ChatbotExceptions {
+        String identity = identity(task.toFileFormat());
+        List<Entry> entries = new ArrayList<>();
+        for (int segment = 1; segment <= lastSegment; segment++) {
+            for (String[] fields : readSegment(segment)) {
+                if (fields[1].equals(CHECKPOINT) || fields[1].equals(SNAPSHOT)) {
+                    continue;
+                }
+                if (identity(fields[3]).equals(identity)) {
+                    entries.add(new Entry(LocalDateTime.parse(fields[0]), Operation.valueOf(fields[1])));
+                }
+            }
+        }
+        return entries;
+    }
+
+    /**
+     * Replays the records of one segment up to and including the given time.
+     */
+    private static List<Task> replay(List<String[]> records, LocalDateTime time) throws ChatbotExceptions {
+        List<Task> state = new ArrayList<>();
+        for (String[] fields : records) {
+            if (LocalDateTime.parse(fields[0]).isAfter(time)) {
+                break;
+            }
+            String op = fields[1];
+            if (op.equals(CHECKPOINT)) {
+                continue;
+            }
+            try {
+                int index = Integer.parseInt(fields[2]);
+                if (op.equals(SNAPSHOT) || op.equals(Operation.ADD.name())) {
+                    state.add(index, Storage.decodeRecord(fields[3]));
+                } else if (op.equals(Operation.DELETE.name())) {
+                    state.remove(index);
+                } else if (op.equals(Operation.MARK.name())) {
+                    state.get(index).markAsDone();
+                } else if (op.equals(Operation.UNMARK.name())) {
+                    state.get(index).markAsNotDone();
+                }
+            } catch (CorruptRecordException | IndexOutOfBoundsException e) {
+                throw new ChatbotExceptions("OOPS!!! The audit log is damaged at " + fields[0] + ".");
+            }
+        }
+        return state;
+    }
+
+    /**
+     * Reads the records of a segment, skipping any line cut short by a crash.
+     */
+    private List<String[]> readSegment(int segment) throws ChatbotExceptions {
+        List<String[]> records = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(segmentPath(segment), StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] fields = parseRecord(line);
+                if (fields != null) {
+                    records.add(fields);
+                }
+            }
+        } catch (IOException e) {
+            throw new ChatbotExceptions("Error reading audit log: " + e.getMessage());
+        }
+        return records;
+    }
+
+    private LocalDateTime startOf(int segment) throws ChatbotExceptions {
+        try (BufferedReader reader = Files.newBufferedReader(segmentPath(segment), StandardCharsets.UTF_8)) {
+            String[] fields = parseRecord(reader.readLine());
+            if (fields == null) {
+                throw new ChatbotExceptions("OOPS!!! The audit log is damaged in segment " + segment + ".");
+            }
+            return LocalDateTime.parse(fields[0]);
+        } catch (IOException e) {
+            throw new ChatbotExceptions("Error reading audit log: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Splits a record into its timestamp, operation, index and task.
+     *
+     * @return The four fields, or null if the line is not a whole record.
+     */
+    private static String[] parseRecord(String line) {
+        if (line == null) {
+            return null;
+        }
+        String[] fields = line.split("\\|", 4);
+        if (fields.length < 4) {
+            return null;
+        }
+        try {
+            LocalDateTime.parse(fields[0]);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+        return fields;
+    }
+
+    /**
+     * Returns the file format of a task without its status, which is what
+     * stays the same over the life of a task.
+     */
+    private static String identity(String fileFormat) {
+        // The status is the single character after "X | "
+        return fileFormat.length() < 5 ? fileFormat : fileFormat.substring(0, 4) + fileFormat.substring(5);
+    }
+
+    /**
+     * Renders the file format of each task without caching it on the task, so
+     * that comparing the loaded list with the log does not leave every task
+     * holding a copy of its text.
+     */
+    private static List<String> fileFormats(List<Task> tasks) {
+        List<String> formats = new ArrayList<>(tasks.size());
+        for (Task task : tasks) {
+            formats.add(task.renderFileFormat());
+        }
+        return formats;
+    }
+
+    /**
+     * Returns a file format with its status set to the given one.
+     */
+    private static String withStatus(String fileFormat, boolean isDone) {
+        int statusAt = fileFormat.indexOf(" | ") + 3;
+        return fileFormat.substring(0, statusAt) + (isDone ? '1' : '0') + fileFormat.substring(statusAt + 1);
+    }
+
+    private Path segmentPath(int segment) {
+        return Paths.get(basePath + "." + segment + SEGMENT_SUFFIX);
+    }
+
+    private int findLastSegment() {
+        Path base = Paths.get(basePath).toAbsolutePath();
+        String prefix = base.getFileName() + ".";
+        int last = 0;
+        try (Stream<Path> files = Files.list(base.getParent())) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                String name = file.getFileName().toString();
+                if (name.startsWith(prefix) && name.endsWith(SEGMENT_SUFFIX)) {
+                    try {
+                        String number = name.substring(prefix.length(), name.length() - SEGMENT_SUFFIX.length());
+                        last = Math.max(last, Integer.parseInt(number));
+                    } catch (NumberFormatException e) {
+                        // Not a segment of this log
+                    }
+                }
+            }
+        } catch (IOException e) {
+            // No directory yet, so no segments either
+        }
+        return last;
+    }
+
+    /**
+     * One recorded change to a task.
+     */
+    public static class Entry {
+        private final LocalDateTime time;
+        private final Operation operation;
+
+        Entry(LocalDateTime time, Operation operation) {
+            this.time = time;
+            this.operation = operation;
+        }
+
+        /**
+         * Returns when the change was written.
+         *
+         * @return The time of the change.
+         */
+        public LocalDateTime getTime() {
+            return time;
+        }
+
+        /**
+         * Returns what the change was.
+         *
+         * @return The kind of change.
+         */
+        public Operation getOperation() {
+            return operation;
+        }
+    }
+}
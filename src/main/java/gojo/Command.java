@@ -20,10 +20,44 @@ public enum Command {
     DEADLINE,
     /** Adds a new Event task. */
     EVENT,
+    /** Adds a new recurring task. */
+    RECUR,
     /** Lists tasks scheduled for a specific date. */
     SCHEDULE,
     /** Finds tasks matching a keyword. */
     FIND,
+    /** Shows when a task was added, marked and unmarked. */
+    HISTORY,
+    /** Lists the pending deadlines, events and recurring tasks that are due next. */
+    UPCOMING,
+    /** Lists the pending deadlines and events whose due time has passed. */
+    OVERDUE,
+    /** Lists the pending events that overlap each other. */
+    CONFLICTS,
+    /** Shows or changes how long before a task is due reminders are sent. */
+    REMIND,
+    /** Shows how many tasks there are of each type and status and how many are due soon. */
+    SUMMARY,
+    /** Shows runtime statistics such as query cache hits and misses. */
+    STATS,
+    /** Checks every record of the data file for damage. */
+    VERIFY,
     /** Deletes a specific task. */
-    DELETE
+    DELETE,
+    /** Writes all tasks to a CSV, JSON Lines or iCalendar file. */
+    EXPORT,
+    /** Adds all tasks from a CSV, JSON Lines or iCalendar file. */
+    IMPORT,
+    /** Moves old done tasks into the compressed archive, or lists the archive. */
+    ARCHIVE,
+    /** Switches to another named workspace. */
+    USE,
+    /** Lists the named workspaces. */
+    LISTS,
+    /** Starts a group of commands that are saved together or not at all. */
+    BEGIN,
+    /** Saves the changes of the open transaction. */
+    COMMIT,
+    /** Undoes the changes of the open transaction. */
+    ROLLBACK
 }
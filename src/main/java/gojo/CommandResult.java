@@ -0,0 +1,118 @@
+package gojo;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Represents the outcome of running one command through the GojoEngine.
+ * <p>
+ * Instead of printed text, a result carries the command that ran, the lines a
+ * user would have been shown, and the tasks the command listed, added,
+ * changed or removed, so that programs embedding Gojo do not need to parse
+ * the output.
+ * </p>
+ */
+public class CommandResult {
+    private final Command command;
+    private final List<String> lines;
+    private final List<Task> tasks;
+    private final String error;
+    private final boolean isExit;
+
+    private CommandResult(Command command, List<String> lines, List<Task> tasks, String error, boolean isExit) {
+        this.command = command;
+        this.lines = Collections.unmodifiableList(lines);
+        this.tasks = Collections.unmodifiableList(tasks);
+        this.error = error;
+        this.isExit = isExit;
+    }
+
+    /**
+     * Creates the result of a command that ran successfully.
+     *
+     * @param command The command that ran, or null for a blank line.
+     * @param lines   The output lines of the command.
+     * @param tasks   The tasks the command listed or modified.
+     * @return The result.
+     */
+    public static CommandResult success(Command command, List<String> lines, List<Task> tasks) {
+        return new CommandResult(command, lines, tasks, null, false);
+    }
+
+    /**
+     * Creates the result of a command that failed.
+     *
+     * @param command The command that failed, or null if it was not recognised.
+     * @param error   The message explaining the failure.
+     * @return The result.
+     */
+    public static CommandResult error(Command command, String error) {
+        return new CommandResult(command, List.of(), List.of(), error, false);
+    }
+
+    /**
+     * Creates the result of a command that ends the session.
+     *
+     * @param command The command that ran.
+     * @param lines   The farewell lines.
+     * @return The result.
+     */
+    public static CommandResult exit(Command command, List<String> lines) {
+        return new CommandResult(command, lines, List.of(), null, true);
+    }
+
+    /**
+     * Returns the command that ran.
+     *
+     * @return The command, or null for a blank or unrecognised line.
+     */
+    public Command getCommand() {
+        return command;
+    }
+
+    /**
+     * Returns the lines a user would be shown for this result.
+     *
+     * @return The output lines; empty for an error.
+     */
+    public List<String> getLines() {
+        return lines;
+    }
+
+    /**
+     * Returns the tasks the command listed, added, changed or removed, in the
+     * order they appear in the output.
+     *
+     * @return The tasks involved; empty if there are none.
+     */
+    public List<Task> getTasks() {
+        return tasks;
+    }
+
+    /**
+     * Returns whether the command failed.
+     *
+     * @return True if the command failed.
+     */
+    public boolean isError() {
+        return error != null;
+    }
+
+    /**
+     * Returns the message explaining why the command failed.
+     *
+     * @return The error message, or null if the command succeeded.
+     */
+    public String getError() {
+        return error;
+    }
+
+    /**
+     * Returns whether the command asks to end the session.
+     *
+     * @return True for BYE.
+     */
+    public boolean isExit() {
+        return isExit;
+    }
+}
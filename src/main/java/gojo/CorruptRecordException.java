@@ -0,0 +1,51 @@
+package gojo;
+
+/**
+ * Represents a line in the data file that could not be turned back into a
+ * task.
+ * <p>
+ * The kind of damage is recorded so that a truncated write can be told apart
+ * from, for example, a date that no longer parses.
+ * </p>
+ */
+public class CorruptRecordException extends ChatbotExceptions {
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * The ways in which a stored record can be damaged.
+     */
+    public enum Kind {
+        /** The record ends before all of its fields were written. */
+        TRUNCATED,
+        /** The record does not match the checksum stored with it. */
+        CHECKSUM_MISMATCH,
+        /** A date field of the record cannot be parsed. */
+        BAD_DATE,
+        /** The record starts with an unknown task type. */
+        UNKNOWN_TYPE,
+        /** The record has the right shape but an invalid field. */
+        MALFORMED
+    }
+
+    private final Kind kind;
+
+    /**
+     * Constructs a new CorruptRecordException.
+     *
+     * @param kind    The kind of damage found.
+     * @param message The detail message explaining the damage.
+     */
+    public CorruptRecordException(Kind kind, String message) {
+        super(message);
+        this.kind = kind;
+    }
+
+    /**
+     * Returns the kind of damage found in the record.
+     *
+     * @return The kind of damage.
+     */
+    public Kind getKind() {
+        return kind;
+    }
+}
@@ -0,0 +1,155 @@
+package gojo;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads and writes tasks as comma-separated values.
+ * <p>
+ * The columns are "type,done,description,start,end,every,until". Fields are
+ * quoted as described in RFC 4180 whenever they contain a comma, a quote or a
+ * line break.
+ * </p>
+ */
+class CsvFormat implements TaskFormat {
+    private static final String HEADER = "type,done,description,start,end,every,until";
+
+    // Longest quoted field read before a missing closing quote is assumed,
+    // so that one stray quote cannot pull the rest of the file into a field.
+    private static final int MAX_QUOTED_LENGTH = 1 << 14;
+
+    @Override
+    public void writeHeader(Writer out) throws IOException {
+        out.write(HEADER);
+        out.write('\n');
+    }
+
+    @Override
+    public void write(Task task, Writer out) throws IOException {
+        String type = "T";
+        String start = "";
+        String end = "";
+        String every = "";
+        String until = "";
+        if (task instanceof Deadline) {
+            type = "D";
+            start = DateParser.toFileString(((Deadline) task).by);
+        } else if (task instanceof Event) {
+            Event event = (Event) task;
+            type = "E";
+            start = DateParser.toFileString(event.from);
+            end = DateParser.toFileString(event.to);
+        } else if (task instanceof RecurringTask) {
+            RecurringTask recurring = (RecurringTask) task;
+            type = "R";
+            start = DateParser.toFileString(recurring.start);
+            every = recurring.frequency.name();
+            until = DateParser.toFileString(recurring.until);
+        }
+        out.write(type);
+        out.write(',');
+        out.write(task.isDone ? "1" : "0");
+        out.write(',');
+        writeField(task.description, out);
+        out.write(',');
+        out.write(start);
+        out.write(',');
+        out.write(end);
+        out.write(',');
+        out.write(every);
+        out.write(',');
+        out.write(until);
+        out.write('\n');
+    }
+
+    @Override
+    public void writeFooter(Writer out) {
+        // CSV has no trailer
+    }
+
+    @Override
+    public void read(BufferedReader in, List<Task> batch) throws IOException, ChatbotExceptions {
+        List<String> fields = new ArrayList<>();
+        long lineNumber = 0;
+        String line;
+        while ((line = in.readLine()) != null) {
+            lineNumber++;
+            long recordLine = lineNumber;
+            if (line.isEmpty() || (recordLine == 1 && line.startsWith("type,"))) {
+                continue;
+            }
+
+            // A quoted field may span several physical lines
+            fields.clear();
+            StringBuilder field = new StringBuilder();
+            boolean isQuoted = parseLine(line, fields, field, false);
+            while (isQuoted) {
+                line = in.readLine();
+                if (line == null || field.length() + line.length() > MAX_QUOTED_LENGTH) {
+                    throw TaskTransfer.invalidRecord(recordLine, new ChatbotExceptions("unterminated quote"));
+                }
+                lineNumber++;
+                field.append('\n');
+                isQuoted = parseLine(line, fields, field, true);
+            }
+            fields.add(field.toString());
+
+            try {
+                batch.add(TaskTransfer.createTask(get(fields, 0), "1".equals(get(fields, 1)), get(fields, 2),
+                        get(fields, 3), get(fields, 4), get(fields, 5), get(fields, 6)));
+            } catch (ChatbotExceptions e) {
+                throw TaskTransfer.invalidRecord(recordLine, e);
+            }
+        }
+    }
+
+    /**
+     * Splits one physical line into fields.
+     * The last field is left in the builder so that a quoted field can continue
+     * on the next line.
+     *
+     * @return True if the line ends inside a quoted field.
+     */
+    private static boolean parseLine(String line, List<String> fields, StringBuilder field, boolean isQuoted) {
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (isQuoted) {
+                if (c != '"') {
+                    field.append(c);
+                } else if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else {
+                    isQuoted = false;
+                }
+            } else if (c == '"') {
+                isQuoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        return isQuoted;
+    }
+
+    private static String get(List<String> fields, int index) {
+        return index < fields.size() ? fields.get(index).trim() : "";
+    }
+
+    private static void writeField(String value, Writer out) throws IOException {
+        boolean needsQuotes = value.indexOf(',') >= 0 || value.indexOf('"') >= 0
+                || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0;
+        if (!needsQuotes) {
+            out.write(value);
+            return;
+        }
+        out.write('"');
+        out.write(value.replace("\"", "\"\""));
+        out.write('"');
+    }
+}
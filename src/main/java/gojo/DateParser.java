@@ -1,20 +1,36 @@
 package gojo;
 
+import java.time.DateTimeException;
+import java.time.DayOfWeek;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.time.format.DateTimeFormatter;
-import java.time.format.DateTimeParseException;
-
-import java.util.Arrays;
-import java.util.List;
+import java.time.temporal.TemporalAdjusters;
+import java.util.HashMap;
+import java.util.Map;
 
 /**
  * Utility class for parsing and formatting dates and times in the Gojo
  * application.
- * Supports flexible formats including standard date-time patterns and natural
- * language keywords
- * like "today" and "tomorrow".
+ * <p>
+ * Dates are read by a small hand-written grammar in a single pass over the
+ * input, without trying formats one after another and without exceptions.
+ * It understands
+ * </p>
+ * <ul>
+ * <li>numeric dates: 2/12/2019, 2-12-2019 and 2019-12-02;</li>
+ * <li>dates with month names: Dec 2 2019, 2 Dec 2019 and Dec 2nd 2019;</li>
+ * <li>relative days: today, tomorrow, yesterday, fri, next fri, last fri,
+ * next week, in 3 days, in 2 weeks, end of month and end of week;</li>
+ * <li>times: 1800, 18:00, 3pm, 3:30pm, noon and midnight, before or after
+ * the date; a time on its own means today;</li>
+ * <li>offsets from now: in 2 hours, in 30 minutes.</li>
+ * </ul>
+ * <p>
+ * A date without a time is taken to mean 23:59 on that day. Weekdays mean the
+ * next such day, today included; "next" excludes today and "last" looks back.
+ * </p>
  */
 public class DateParser {
     /**
@@ -23,84 +39,489 @@ public class DateParser {
     private DateParser() {
     }
 
-    // List of supported date-time formats
-    private static final List<String> DATE_TIME_FORMATS = Arrays.asList(
-            "d/M/yyyy HHmm",
-            "yyyy-MM-dd HHmm",
-            "d-M-yyyy HHmm",
-            "dd MMM yyyy HH:mm" // For parity if needed
-    );
-
-    // List of supported date-only formats (default time will be set)
-    private static final List<String> DATE_ONLY_FORMATS = Arrays.asList(
-            "d/M/yyyy",
-            "yyyy-MM-dd",
-            "d-M-yyyy",
-            "MMM d yyyy");
+    // Time given to a date without one, so that a deadline lasts the whole day
+    private static final LocalTime DEFAULT_TIME = LocalTime.of(23, 59);
+
+    // Format shown to the user
+    private static final DateTimeFormatter DISPLAY_FORMAT = DateTimeFormatter.ofPattern("MMM d yyyy HH:mm");
+
+    // Format used in the data file
+    private static final DateTimeFormatter FILE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HHmm");
+
+    private static final Map<String, Integer> MONTHS = new HashMap<>();
+    private static final Map<String, DayOfWeek> WEEKDAYS = new HashMap<>();
+
+    static {
+        String[] months = {"january", "february", "march", "april", "may", "june", "july", "august", "september",
+            "october", "november", "december"};
+        for (int i = 0; i < months.length; i++) {
+            MONTHS.put(months[i], i + 1);
+            MONTHS.put(months[i].substring(0, 3), i + 1);
+        }
+        MONTHS.put("sept", 9);
+        for (DayOfWeek day : DayOfWeek.values()) {
+            String name = day.name().toLowerCase();
+            WEEKDAYS.put(name, day);
+            WEEKDAYS.put(name.substring(0, 3), day);
+        }
+        WEEKDAYS.put("tues", DayOfWeek.TUESDAY);
+        WEEKDAYS.put("thur", DayOfWeek.THURSDAY);
+        WEEKDAYS.put("thurs", DayOfWeek.THURSDAY);
+    }
 
     /**
      * Parses a string input into a LocalDateTime object.
-     * 
+     *
      * @param input The date string to parse.
      * @return The parsed LocalDateTime object.
      * @throws ChatbotExceptions If the input cannot be parsed into a valid
      *                           date-time.
      */
     public static LocalDateTime parseDateTime(String input) throws ChatbotExceptions {
-        String trimmedInput = input.trim().toLowerCase();
-
-        // Handle keywords
-        if (trimmedInput.equals("today")) {
-            return LocalDateTime.now().with(LocalTime.MAX); // End of today? Or maybe start? Let's say 23:59 for
-                                                            // deadlines
-        } else if (trimmedInput.equals("tomorrow")) {
-            return LocalDateTime.now().plusDays(1).with(LocalTime.MAX);
-        }
-
-        // Try parsing with time
-        // Try parsing with time
-        for (String format : DATE_TIME_FORMATS) {
-            try {
-                DateTimeFormatter formatter = DateTimeFormatter.ofPattern(format);
-                return LocalDateTime.parse(input.trim(), formatter);
-            } catch (DateTimeParseException ignored) {
-                // Try next format
-            }
+        LocalDateTime result = parse(input, LocalDateTime.now());
+        if (result == null) {
+            throw new ChatbotExceptions("OOPS!!! Invalid date format. Please use d/M/yyyy HHmm (e.g., 2/12/2019 1800)"
+                    + " or words such as 'tomorrow 3pm', 'next fri' or 'in 3 days'.");
         }
+        return result;
+    }
 
-        // Try parsing without time (default to 23:59)
-        // Try parsing without time (default to 23:59)
-        for (String format : DATE_ONLY_FORMATS) {
-            try {
-                DateTimeFormatter formatter = DateTimeFormatter.ofPattern(format);
-                LocalDate date = LocalDate.parse(input.trim(), formatter);
-                return date.atTime(23, 59);
-            } catch (DateTimeParseException ignored) {
-                // Try next format
-            }
-        }
+    /**
+     * Parses a date relative to the given moment.
+     *
+     * @param input The date string to parse.
+     * @param now   The moment that relative dates such as "tomorrow" count from.
+     * @return The parsed date and time, or null if the input is not a date.
+     */
+    static LocalDateTime parse(String input, LocalDateTime now) {
+        return new Cursor(input.toLowerCase(), now).parse();
+    }
 
-        throw new ChatbotExceptions(
-                "OOPS!!! Invalid date format. Please use d/M/yyyy HHmm (e.g., 2/12/2019 1800) or 'today'/'tomorrow'.");
+    /**
+     * Parses a date that does not depend on when it is read, such as
+     * 2019-12-02 1800 or 2 Dec 2019 18:00, but not "tomorrow" or "4pm".
+     *
+     * @param input The date string to parse.
+     * @return The parsed date and time, or null if the input is not an absolute date.
+     */
+    static LocalDateTime parseAbsolute(String input) {
+        return new Cursor(input.toLowerCase(), null).parse();
     }
 
     /**
      * Formats a LocalDateTime object into a user-friendly string.
-     * 
+     *
      * @param dateTime The LocalDateTime object to format.
      * @return A formatted string (e.g., "MMM d yyyy HH:mm").
      */
     public static String formatDateTime(LocalDateTime dateTime) {
-        return dateTime.format(DateTimeFormatter.ofPattern("MMM d yyyy HH:mm"));
+        return dateTime.format(DISPLAY_FORMAT);
     }
 
     /**
      * Formats a LocalDateTime object for file storage.
-     * 
+     *
      * @param dateTime The LocalDateTime object to format.
      * @return A formatted string (ISO-8601 like pattern preferred for stability).
      */
     public static String toFileString(LocalDateTime dateTime) {
-        return dateTime.format(DateTimeFormatter.ofPattern("yyyy-MM-dd HHmm"));
+        return dateTime.format(FILE_FORMAT);
+    }
+
+    /**
+     * Parses a date written by {@link #toFileString(LocalDateTime)}.
+     * <p>
+     * Only absolute dates are accepted: the file format, and the numeric and
+     * month-name forms older data files may hold. A relative date such as
+     * "in 2 hours" would move every time the file is loaded, so a record
+     * holding one is treated as damaged rather than read.
+     * </p>
+     *
+     * @param text The stored date string.
+     * @return The parsed LocalDateTime object.
+     * @throws ChatbotExceptions If the text is not an absolute date.
+     */
+    public static LocalDateTime parseFileString(String text) throws ChatbotExceptions {
+        LocalDateTime result = parseAbsolute(text);
+        if (result == null) {
+            throw new ChatbotExceptions("OOPS!!! '" + text + "' is not a date in the data file format.");
+        }
+        return result;
+    }
+
+    /**
+     * Walks over the lower-cased input once, reading a date and a time in
+     * either order. Every read either consumes input and succeeds, or leaves
+     * the position where it was and reports failure.
+     */
+    private static class Cursor {
+        private final String text;
+
+        // The moment relative dates count from; null if only absolute dates are allowed
+        private final LocalDateTime now;
+        private int pos;
+
+        // Length of the last number read, to tell 2019 from 19 and 0900 from 9
+        private int digits;
+
+        // Set by offsets such as "in 2 hours", which fix the time as well as the date
+        private LocalTime fixedTime;
+
+        private Cursor(String text, LocalDateTime now) {
+            this.text = text;
+            this.now = now;
+        }
+
+        private LocalDateTime parse() {
+            LocalDate date = date();
+            accept("at");
+            LocalTime time = time();
+            if (date == null && time != null) {
+                accept("on");
+                date = date();
+            }
+            skipSpaces();
+            if (pos != text.length() || (date == null && time == null) || (time != null && fixedTime != null)) {
+                return null;
+            }
+            if (date == null && now == null) {
+                // A time on its own means today, which is relative
+                return null;
+            }
+            if (time == null) {
+                time = fixedTime != null ? fixedTime : DEFAULT_TIME;
+            }
+            return (date == null ? now.toLocalDate() : date).atTime(time);
+        }
+
+        // ---- dates ----
+
+        private LocalDate date() {
+            int start = pos;
+            LocalDate date = numericDate();
+            if (date == null) {
+                pos = start;
+                date = wordDate();
+            }
+            if (date == null) {
+                pos = start;
+            }
+            return date;
+        }
+
+        /**
+         * Reads 2/12/2019, 2-12-2019, 2019-12-02, 2 Dec 2019 or 2nd Dec 2019.
+         */
+        private LocalDate numericDate() {
+            int first = number();
+            if (first < 0) {
+                return null;
+            }
+            int firstDigits = digits;
+            char separator = peek();
+            if (separator == '/' || separator == '-') {
+                pos++;
+                int second = number();
+                if (second < 0 || digits > 2 || !acceptChar(separator)) {
+                    return null;
+                }
+                int third = number();
+                if (third < 0) {
+                    return null;
+                }
+                if (firstDigits == 4 && digits <= 2) {
+                    return dateOf(first, second, third);
+                }
+                return firstDigits <= 2 && digits == 4 ? dateOf(third, second, first) : null;
+            }
+            if (firstDigits > 2) {
+                return null;
+            }
+            ordinalSuffix();
+            Integer month = MONTHS.get(word());
+            if (month == null) {
+                return null;
+            }
+            int year = number();
+            return year >= 0 && digits == 4 ? dateOf(year, month, first) : null;
+        }
+
+        /**
+         * Reads Dec 2 2019 and the relative forms such as "next fri".
+         */
+        private LocalDate wordDate() {
+            String word = word();
+            if (word == null) {
+                return null;
+            }
+            Integer month = MONTHS.get(word);
+            if (month != null) {
+                int day = number();
+                if (day < 0 || digits > 2) {
+                    return null;
+                }
+                ordinalSuffix();
+                int year = number();
+                return year >= 0 && digits == 4 ? dateOf(year, month, day) : null;
+            }
+            if (now == null) {
+                return null;
+            }
+            LocalDate today = now.toLocalDate();
+            DayOfWeek weekday = WEEKDAYS.get(word);
+            if (weekday != null) {
+                return today.with(TemporalAdjusters.nextOrSame(weekday));
+            }
+            switch (word) {
+                case "today":
+                case "tonight":
+                    return today;
+                case "tomorrow":
+                    return today.plusDays(1);
+                case "yesterday":
+                    return today.minusDays(1);
+                case "this":
+                    weekday = WEEKDAYS.get(word());
+                    return weekday == null ? null : today.with(TemporalAdjusters.nextOrSame(weekday));
+                case "next":
+                case "last":
+                    return relative(today, word.equals("next") ? 1 : -1);
+                case "in":
+                    return offset(today);
+                case "end":
+                    return accept("of") ? endOf(today) : null;
+                default:
+                    return null;
+            }
+        }
+
+        private LocalDate relative(LocalDate today, int direction) {
+            String word = word();
+            if (word == null) {
+                return null;
+            }
+            DayOfWeek weekday = WEEKDAYS.get(word);
+            if (weekday != null) {
+                return today.with(direction > 0 ? TemporalAdjusters.next(weekday)
+                        : TemporalAdjusters.previous(weekday));
+            }
+            try {
+                switch (word) {
+                    case "week":
+                        return today.plusWeeks(direction);
+                    case "month":
+                        return today.plusMonths(direction);
+                    case "year":
+                        return today.plusYears(direction);
+                    default:
+                        return null;
+                }
+            } catch (DateTimeException e) {
+                // Beyond the years a date can hold
+                return null;
+            }
+        }
+
+        /**
+         * Reads the rest of "in 3 days" or "in 2 hours".
+         */
+        private LocalDate offset(LocalDate today) {
+            int amount = number();
+            String unit = word();
+            if (amount < 0 || unit == null) {
+                return null;
+            }
+            try {
+                switch (unit) {
+                    case "min":
+                    case "mins":
+                    case "minute":
+                    case "minutes":
+                        return fixTime(now.plusMinutes(amount));
+                    case "hr":
+                    case "hrs":
+                    case "hour":
+                    case "hours":
+                        return fixTime(now.plusHours(amount));
+                    case "day":
+                    case "days":
+                        return today.plusDays(amount);
+                    case "week":
+                    case "weeks":
+                        return today.plusWeeks(amount);
+                    case "month":
+                    case "months":
+                        return today.plusMonths(amount);
+                    case "year":
+                    case "years":
+                        return today.plusYears(amount);
+                    default:
+                        return null;
+                }
+            } catch (DateTimeException e) {
+                // Beyond the years a date can hold, e.g. "in 999999999 years"
+                return null;
+            }
+        }
+
+        private LocalDate fixTime(LocalDateTime moment) {
+            fixedTime = moment.toLocalTime().withSecond(0).withNano(0);
+            return moment.toLocalDate();
+        }
+
+        private LocalDate endOf(LocalDate today) {
+            String word = word();
+            if (word == null) {
+                return null;
+            }
+            switch (word) {
+                case "week":
+                    return today.with(TemporalAdjusters.nextOrSame(DayOfWeek.SUNDAY));
+                case "month":
+                    return today.with(TemporalAdjusters.lastDayOfMonth());
+                case "year":
+                    return today.with(TemporalAdjusters.lastDayOfYear());
+                default:
+                    return null;
+            }
+        }
+
+        /**
+         * Returns the given date, moving a day past the end of a short month
+         * back to its last day as the fixed formats used to, or null if the
+         * date cannot exist.
+         */
+        private static LocalDate dateOf(int year, int month, int day) {
+            if (month < 1 || month > 12 || day < 1 || day > 31) {
+                return null;
+            }
+            LocalDate firstOfMonth = LocalDate.of(year, month, 1);
+            return firstOfMonth.withDayOfMonth(Math.min(day, firstOfMonth.lengthOfMonth()));
+        }
+
+        // ---- times ----
+
+        /**
+         * Reads 1800, 18:00, 3pm, 3:30pm, noon or midnight.
+         */
+        private LocalTime time() {
+            int start = pos;
+            LocalTime time = clockTime();
+            if (time == null) {
+                pos = start;
+                if (accept("noon")) {
+                    time = LocalTime.NOON;
+                } else if (accept("midnight")) {
+                    time = LocalTime.MIDNIGHT;
+                }
+            }
+            return time;
+        }
+
+        private LocalTime clockTime() {
+            int hour = number();
+            if (hour < 0) {
+                return null;
+            }
+            if (digits == 4) {
+                return timeOf(hour / 100, hour % 100);
+            }
+            if (digits > 2) {
+                return null;
+            }
+            int minute = 0;
+            boolean hasMinutes = acceptChar(':');
+            if (hasMinutes) {
+                minute = number();
+                if (minute < 0 || digits != 2) {
+                    return null;
+                }
+            }
+            int afterNumber = pos;
+            String suffix = word();
+            if ("am".equals(suffix) || "pm".equals(suffix)) {
+                if (hour < 1 || hour > 12) {
+                    return null;
+                }
+                return timeOf(hour % 12 + (suffix.equals("pm") ? 12 : 0), minute);
+            }
+            pos = afterNumber;
+            // A bare number such as "3" is not a time
+            return hasMinutes ? timeOf(hour, minute) : null;
+        }
+
+        private static LocalTime timeOf(int hour, int minute) {
+            return hour <= 23 && minute <= 59 ? LocalTime.of(hour, minute) : null;
+        }
+
+        // ---- lexing ----
+
+        private void skipSpaces() {
+            while (pos < text.length() && (text.charAt(pos) == ' ' || text.charAt(pos) == ','
+                    || Character.isWhitespace(text.charAt(pos)))) {
+                pos++;
+            }
+        }
+
+        private char peek() {
+            return pos < text.length() ? text.charAt(pos) : '\0';
+        }
+
+        private boolean acceptChar(char c) {
+            if (peek() == c) {
+                pos++;
+                return true;
+            }
+            return false;
+        }
+
+        /**
+         * Reads an unsigned number of up to nine digits, or returns -1.
+         */
+        private int number() {
+            skipSpaces();
+            int start = pos;
+            int value = 0;
+            while (pos < text.length() && pos - start < 9 && text.charAt(pos) >= '0' && text.charAt(pos) <= '9') {
+                value = value * 10 + (text.charAt(pos) - '0');
+                pos++;
+            }
+            digits = pos - start;
+            return digits == 0 ? -1 : value;
+        }
+
+        /**
+         * Reads a run of letters, or returns null.
+         */
+        private String word() {
+            skipSpaces();
+            int start = pos;
+            while (pos < text.length() && Character.isLetter(text.charAt(pos))) {
+                pos++;
+            }
+            if (pos < text.length() && text.charAt(pos) == '.' && pos > start) {
+                // Allow abbreviations such as "fri." and "dec."
+                pos++;
+                return text.substring(start, pos - 1);
+            }
+            return pos == start ? null : text.substring(start, pos);
+        }
+
+        private boolean accept(String expected) {
+            int start = pos;
+            if (expected.equals(word())) {
+                return true;
+            }
+            pos = start;
+            return false;
+        }
+
+        private void ordinalSuffix() {
+            int start = pos;
+            String suffix = word();
+            if (!"st".equals(suffix) && !"nd".equals(suffix) && !"rd".equals(suffix) && !"th".equals(suffix)) {
+                pos = start;
+            }
+        }
     }
 }
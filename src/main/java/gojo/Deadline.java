@@ -26,6 +26,17 @@ public class Deadline extends Task {
         this.by = DateParser.parseDateTime(by);
     }
 
+    /**
+     * Constructs a new Deadline task from an already parsed date and time.
+     *
+     * @param description The description of the task.
+     * @param by          The deadline date and time.
+     */
+    public Deadline(String description, LocalDateTime by) {
+        super(description);
+        this.by = by;
+    }
+
     /**
      * Returns a string representation of the deadline task.
      * The format is "[D][Status] Description (by: MMM d yyyy HH:mm)".
@@ -33,8 +44,8 @@ public class Deadline extends Task {
      * @return The string representation of the deadline task.
      */
     @Override
-    public String toString() {
-        return "[D]" + super.toString() + " (by: " + DateParser.formatDateTime(by) + ")";
+    protected String renderDisplay() {
+        return "[D]" + super.renderDisplay() + " (by: " + DateParser.formatDateTime(by) + ")";
     }
 
     /**
@@ -44,7 +55,7 @@ public class Deadline extends Task {
      * @return A formatted string suitable for saving to a file.
      */
     @Override
-    public String toFileFormat() {
-        return "D" + super.toFileFormat() + " | " + DateParser.toFileString(by);
+    protected String renderFileFormat() {
+        return "D" + super.renderFileFormat() + " | " + DateParser.toFileString(by);
     }
 }
@@ -0,0 +1,214 @@
+package gojo;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Keeps the pending deadlines and events ordered by when they are due.
+ * <p>
+ * The index listens to the task list, so adding, deleting or marking a task
+ * updates it in O(log n) and the next k tasks can be read off in
+ * O(log n + k) without sorting the whole list. A deadline is due at its
+ * deadline and an event at its start. A deadline is overdue once its deadline
+ * has passed, but an event only once it has ended, so an event in progress is
+ * neither upcoming nor overdue. Done tasks are dropped from the index.
+ * </p>
+ * <p>
+ * Recurring tasks have no single due date, so the pending ones are kept aside
+ * and their next occurrence is worked out when a view is asked for.
+ * </p>
+ */
+public class DueIndex implements TaskListener {
+    private final TreeSet<Entry> byDueDate = new TreeSet<>(
+            Comparator.comparing((Entry e) -> e.due).thenComparingLong(e -> e.sequence));
+
+    // The same entries ordered by when they stop being pending, for OVERDUE.
+    private final TreeSet<Entry> byEndDate = new TreeSet<>(
+            Comparator.comparing((Entry e) -> e.end).thenComparingLong(e -> e.sequence));
+
+    // The entry of each indexed task, so it can be found again on removal.
+    private final Map<Task, Entry> entries = new IdentityHashMap<>();
+
+    // Pending recurring tasks, expanded lazily.
+    private final Set<RecurringTask> recurring = Collections.newSetFromMap(new IdentityHashMap<>());
+
+    // Breaks ties between tasks due at the same moment in insertion order.
+    private long nextSequence;
+
+    /**
+     * Constructs an index over the given tasks.
+     *
+     * @param tasks The tasks to index initially.
+     */
+    public DueIndex(List<Task> tasks) {
+        tasksAdded(tasks);
+    }
+
+    /**
+     * Returns the pending tasks that are due at or after the given moment,
+     * soonest first.
+     *
+     * @param now   The moment to look forward from.
+     * @param limit The maximum number of tasks to return.
+     * @return Up to {@code limit} upcoming tasks with the time each is due.
+     */
+    public List<Due> upcoming(LocalDateTime now, int limit) {
+        List<Due> result = new ArrayList<>();
+        Iterator<Entry> fixed = byDueDate.tailSet(new Entry(now, now, Long.MIN_VALUE, null), true).iterator();
+        Entry nextFixed = fixed.hasNext() ? fixed.next() : null;
+
+        // Recurring tasks are few, so their next occurrences are sorted per call
+        // and merged with the ordered view of the other tasks
+        List<Due> repeats = new ArrayList<>();
+        for (RecurringTask r : recurring) {
+            LocalDateTime next = r.nextOccurrence(now);
+            if (next != null) {
+                repeats.add(new Due(r, next));
+            }
+        }
+        repeats.sort(Comparator.comparing(Due::getDue));
+
+        int r = 0;
+        while (result.size() < limit && (nextFixed != null || r < repeats.size())) {
+            if (nextFixed != null && (r == repeats.size() || !repeats.get(r).due.isBefore(nextFixed.due))) {
+                result.add(new Due(nextFixed.task, nextFixed.due));
+                nextFixed = fixed.hasNext() ? fixed.next() : null;
+            } else {
+                result.add(repeats.get(r++));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the pending deadlines whose deadline is before the given moment
+     * and the pending events that ended before it, most overdue first.
+     *
+     * @param now The current moment.
+     * @return The overdue tasks with the time each became overdue: the deadline,
+     *         or the end of the event.
+     */
+    public List<Due> overdue(LocalDateTime now) {
+        List<Due> result = new ArrayList<>();
+        for (Entry entry : byEndDate.headSet(new Entry(now, now, Long.MIN_VALUE, null), false)) {
+            result.add(new Due(entry.task, entry.end));
+        }
+        return result;
+    }
+
+    /**
+     * Returns the number of tasks in the index.
+     *
+     * @return The number of pending deadlines, events and recurring tasks.
+     */
+    public int size() {
+        return entries.size() + recurring.size();
+    }
+
+    @Override
+    public void taskAdded(Task task) {
+        if (task.isDone) {
+            return;
+        }
+        if (task instanceof RecurringTask) {
+            recurring.add((RecurringTask) task);
+            return;
+        }
+        LocalDateTime due = dueDate(task);
+        if (due != null && !entries.containsKey(task)) {
+            LocalDateTime end = task instanceof Event ? ((Event) task).to : due;
+            Entry entry = new Entry(due, end, nextSequence++, task);
+            entries.put(task, entry);
+            byDueDate.add(entry);
+            byEndDate.add(entry);
+        }
+    }
+
+    @Override
+    public void taskRemoved(Task task) {
+        if (task instanceof RecurringTask) {
+            recurring.remove(task);
+            return;
+        }
+        Entry entry = entries.remove(task);
+        if (entry != null) {
+            byDueDate.remove(entry);
+            byEndDate.remove(entry);
+        }
+    }
+
+    @Override
+    public void taskChanged(Task task) {
+        if (task.isDone) {
+            taskRemoved(task);
+        } else {
+            taskAdded(task);
+        }
+    }
+
+    /**
+     * Returns the moment a task is due, or null if it has no fixed due date.
+     */
+    static LocalDateTime dueDate(Task task) {
+        if (task instanceof Deadline) {
+            return ((Deadline) task).by;
+        } else if (task instanceof Event) {
+            return ((Event) task).from;
+        }
+        return null;
+    }
+
+    /**
+     * A task paired with the moment it is due.
+     */
+    public static class Due {
+        private final Task task;
+        private final LocalDateTime due;
+
+        private Due(Task task, LocalDateTime due) {
+            this.task = task;
+            this.due = due;
+        }
+
+        /**
+         * Returns the task that is due.
+         *
+         * @return The task.
+         */
+        public Task getTask() {
+            return task;
+        }
+
+        /**
+         * Returns the moment the task is due; for a recurring task this is its
+         * next occurrence.
+         *
+         * @return The due date and time.
+         */
+        public LocalDateTime getDue() {
+            return due;
+        }
+    }
+
+    private static class Entry {
+        private final LocalDateTime due;
+        private final LocalDateTime end;
+        private final long sequence;
+        private final Task task;
+
+        private Entry(LocalDateTime due, LocalDateTime end, long sequence, Task task) {
+            this.due = due;
+            this.end = end;
+            this.sequence = sequence;
+            this.task = task;
+        }
+    }
+}
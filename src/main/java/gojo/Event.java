@@ -30,6 +30,19 @@ public class Event extends Task {
         this.to = DateParser.parseDateTime(to);
     }
 
+    /**
+     * Constructs a new Event task from already parsed start and end times.
+     *
+     * @param description The description of the event.
+     * @param from        The start time of the event.
+     * @param to          The end time of the event.
+     */
+    public Event(String description, LocalDateTime from, LocalDateTime to) {
+        super(description);
+        this.from = from;
+        this.to = to;
+    }
+
     /**
      * Returns a string representation of the event task.
      * The format is "[E][Status] Description (from: start to: end)".
@@ -37,8 +50,8 @@ public class Event extends Task {
      * @return The string representation of the event task.
      */
     @Override
-    public String toString() {
-        return "[E]" + super.toString() + " (from: " + DateParser.formatDateTime(from) + " to: "
+    protected String renderDisplay() {
+        return "[E]" + super.renderDisplay() + " (from: " + DateParser.formatDateTime(from) + " to: "
                 + DateParser.formatDateTime(to) + ")";
     }
 
@@ -49,7 +62,7 @@ public class Event extends Task {
      * @return A formatted string suitable for saving to a file.
      */
     @Override
-    public String toFileFormat() {
-        return "E" + super.toFileFormat() + " | " + DateParser.toFileString(from) + " | " + DateParser.toFileString(to);
+    protected String renderFileFormat() {
+        return "E" + super.renderFileFormat() + " | " + DateParser.toFileString(from) + " | " + DateParser.toFileString(to);
     }
 }
@@ -0,0 +1,273 @@
+package gojo;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps the pending events in an interval tree so that overlaps are found
+ * without comparing every pair of events.
+ * <p>
+ * The tree is a balanced binary search tree ordered by start time, in which
+ * every node also records the latest end time in its subtree. A search can
+ * then skip any subtree that ends before the period of interest, so finding
+ * the k events overlapping a period costs O(log n + k). Like the other
+ * indexes it listens to the task list, and done events are dropped from it.
+ * </p>
+ * <p>
+ * Events touching end to start, such as 9-10am and 10-11am, do not overlap.
+ * </p>
+ */
+public class EventIndex implements TaskListener {
+    private Node root;
+
+    // The node of each indexed event, so it can be found again on removal.
+    private final Map<Task, Node> nodes = new IdentityHashMap<>();
+
+    // Orders events starting at the same moment by when they were indexed.
+    private long nextSequence;
+
+    /**
+     * Constructs an index over the events among the given tasks.
+     *
+     * @param tasks The tasks to index initially.
+     */
+    public EventIndex(List<Task> tasks) {
+        tasksAdded(tasks);
+    }
+
+    /**
+     * Returns the pending events that overlap the given period.
+     *
+     * @param from The start of the period.
+     * @param to   The end of the period.
+     * @return The overlapping events, earliest start first.
+     */
+    public List<Event> overlapping(LocalDateTime from, LocalDateTime to) {
+        List<Event> result = new ArrayList<>();
+        collect(root, from, to, result);
+        return result;
+    }
+
+    /**
+     * Returns the pending events other than the given one that overlap it.
+     *
+     * @param event The event to check.
+     * @return The events it conflicts with, earliest start first.
+     */
+    public List<Event> conflictsWith(Event event) {
+        List<Event> result = overlapping(event.from, event.to);
+        result.removeIf(other -> other == event);
+        return result;
+    }
+
+    /**
+     * Returns every pair of pending events that overlap each other at some
+     * moment within the given period.
+     *
+     * @param from The start of the period.
+     * @param to   The end of the period.
+     * @return The pairs, ordered by the start of the earlier event of each.
+     */
+    public List<Event[]> conflicts(LocalDateTime from, LocalDateTime to) {
+        List<Event[]> pairs = new ArrayList<>();
+        for (Event first : overlapping(from, to)) {
+            Node firstNode = nodes.get(first);
+            for (Event second : overlapping(first.from, first.to)) {
+                // Report each pair once, from the event that sorts first
+                if (compare(nodes.get(second), firstNode) <= 0) {
+                    continue;
+                }
+                LocalDateTime overlapFrom = max(first.from, second.from);
+                LocalDateTime overlapTo = min(first.to, second.to);
+                if (overlapFrom.isBefore(to) && overlapTo.isAfter(from)) {
+                    pairs.add(new Event[] {first, second});
+                }
+            }
+        }
+        return pairs;
+    }
+
+    /**
+     * Returns the number of events in the index.
+     *
+     * @return The number of pending events.
+     */
+    public int size() {
+        return nodes.size();
+    }
+
+    @Override
+    public void taskAdded(Task task) {
+        if (!(task instanceof Event) || task.isDone || nodes.containsKey(task)) {
+            return;
+        }
+        Node node = new Node((Event) task, nextSequence++);
+        nodes.put(task, node);
+        root = insert(root, node);
+    }
+
+    @Override
+    public void taskRemoved(Task task) {
+        Node node = nodes.remove(task);
+        if (node != null) {
+            root = delete(root, node);
+        }
+    }
+
+    @Override
+    public void taskChanged(Task task) {
+        if (task.isDone) {
+            taskRemoved(task);
+        } else {
+            taskAdded(task);
+        }
+    }
+
+    private static void collect(Node node, LocalDateTime from, LocalDateTime to, List<Event> result) {
+        // Nothing in this subtree ends after the period starts
+        if (node == null || !node.maxTo.isAfter(from)) {
+            return;
+        }
+        collect(node.left, from, to, result);
+        if (node.event.from.isBefore(to) && node.event.to.isAfter(from)) {
+            result.add(node.event);
+        }
+        // Everything to the right starts no earlier than this node
+        if (node.event.from.isBefore(to)) {
+            collect(node.right, from, to, result);
+        }
+    }
+
+    private static Node insert(Node node, Node added) {
+        if (node == null) {
+            return added;
+        }
+        if (compare(added, node) < 0) {
+            node.left = insert(node.left, added);
+        } else {
+            node.right = insert(node.right, added);
+        }
+        return rebalance(node);
+    }
+
+    private static Node delete(Node node, Node removed) {
+        if (node == null) {
+            return null;
+        }
+        int order = compare(removed, node);
+        if (order < 0) {
+            node.left = delete(node.left, removed);
+        } else if (order > 0) {
+            node.right = delete(node.right, removed);
+        } else {
+            if (node.left == null) {
+                return node.right;
+            }
+            if (node.right == null) {
+                return node.left;
+            }
+            // Replace the node by the leftmost node of its right subtree
+            Node successor = node.right;
+            while (successor.left != null) {
+                successor = successor.left;
+            }
+            successor.right = deleteLeftmost(node.right);
+            successor.left = node.left;
+            return rebalance(successor);
+        }
+        return rebalance(node);
+    }
+
+    private static Node deleteLeftmost(Node node) {
+        if (node.left == null) {
+            return node.right;
+        }
+        node.left = deleteLeftmost(node.left);
+        return rebalance(node);
+    }
+
+    private static Node rebalance(Node node) {
+        update(node);
+        int balance = height(node.left) - height(node.right);
+        if (balance > 1) {
+            if (height(node.left.left) < height(node.left.right)) {
+                node.left = rotateLeft(node.left);
+            }
+            return rotateRight(node);
+        }
+        if (balance < -1) {
+            if (height(node.right.right) < height(node.right.left)) {
+                node.right = rotateRight(node.right);
+            }
+            return rotateLeft(node);
+        }
+        return node;
+    }
+
+    private static Node rotateRight(Node node) {
+        Node pivot = node.left;
+        node.left = pivot.right;
+        pivot.right = node;
+        update(node);
+        update(pivot);
+        return pivot;
+    }
+
+    private static Node rotateLeft(Node node) {
+        Node pivot = node.right;
+        node.right = pivot.left;
+        pivot.left = node;
+        update(node);
+        update(pivot);
+        return pivot;
+    }
+
+    /**
+     * Recomputes the height and latest end time of a node from its children.
+     */
+    private static void update(Node node) {
+        node.height = 1 + Math.max(height(node.left), height(node.right));
+        node.maxTo = node.event.to;
+        if (node.left != null) {
+            node.maxTo = max(node.maxTo, node.left.maxTo);
+        }
+        if (node.right != null) {
+            node.maxTo = max(node.maxTo, node.right.maxTo);
+        }
+    }
+
+    private static int height(Node node) {
+        return node == null ? 0 : node.height;
+    }
+
+    private static int compare(Node a, Node b) {
+        int order = a.event.from.compareTo(b.event.from);
+        return order != 0 ? order : Long.compare(a.sequence, b.sequence);
+    }
+
+    private static LocalDateTime max(LocalDateTime a, LocalDateTime b) {
+        return a.isAfter(b) ? a : b;
+    }
+
+    private static LocalDateTime min(LocalDateTime a, LocalDateTime b) {
+        return a.isBefore(b) ? a : b;
+    }
+
+    private static class Node {
+        private final Event event;
+        private final long sequence;
+        private Node left;
+        private Node right;
+        private int height = 1;
+        private LocalDateTime maxTo;
+
+        private Node(Event event, long sequence) {
+            this.event = event;
+            this.sequence = sequence;
+            this.maxTo = event.to;
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package gojo;
+
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Represents how often a recurring task repeats.
+ * Each frequency maps onto the calendar unit used to step between
+ * occurrences.
+ */
+public enum Frequency {
+    /** Repeats every day. */
+    DAY(ChronoUnit.DAYS),
+    /** Repeats every week. */
+    WEEK(ChronoUnit.WEEKS),
+    /** Repeats every month. */
+    MONTH(ChronoUnit.MONTHS),
+    /** Repeats every year. */
+    YEAR(ChronoUnit.YEARS);
+
+    private final ChronoUnit unit;
+
+    Frequency(ChronoUnit unit) {
+        this.unit = unit;
+    }
+
+    /**
+     * Returns the calendar unit that separates two consecutive occurrences.
+     *
+     * @return The step unit of this frequency.
+     */
+    public ChronoUnit getUnit() {
+        return unit;
+    }
+
+    /**
+     * Parses a user-supplied frequency such as "week", "weekly" or "WEEK".
+     *
+     * @param input The frequency string to parse.
+     * @return The matching Frequency.
+     * @throws ChatbotExceptions If the input does not name a known frequency.
+     */
+    public static Frequency parse(String input) throws ChatbotExceptions {
+        switch (input.trim().toLowerCase()) {
+            case "day":
+            case "daily":
+                return DAY;
+            case "week":
+            case "weekly":
+                return WEEK;
+            case "month":
+            case "monthly":
+                return MONTH;
+            case "year":
+            case "yearly":
+                return YEAR;
+            default:
+                throw new ChatbotExceptions("OOPS!!! A task can only repeat every day, week, month or year.");
+        }
+    }
+}
@@ -0,0 +1,1076 @@
+package gojo;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Runs Gojo commands without a console, for embedding Gojo in other programs.
+ * <p>
+ * The engine owns the workspaces, each a task list with its own storage and
+ * the indexes kept alongside it, and runs every command against the one in
+ * use. A command line goes in and a {@link CommandResult} comes out, holding
+ * the output lines and the tasks involved rather than printed text. The
+ * console front end in {@link Gojo} is one such caller.
+ * </p>
+ * <p>
+ * Commands submitted with {@link #submit(String)} run on the engine's
+ * executor, one after another in the order they were submitted, so callers
+ * can queue several commands without waiting for each reply.
+ * </p>
+ * <p>
+ * Commands between BEGIN and COMMIT form a transaction: the data file is
+ * written once at COMMIT, and ROLLBACK, or a COMMIT after any of them failed,
+ * undoes them all.
+ * </p>
+ */
+public class GojoEngine {
+    // Number of FIND and SCHEDULE results kept in the query cache.
+    private static final int QUERY_CACHE_SIZE = 64;
+
+    // Number of tasks UPCOMING shows when no count is given.
+    private static final int DEFAULT_UPCOMING = 5;
+
+    // Most workspaces kept in memory at once.
+    private static final int MAX_LOADED_WORKSPACES = 8;
+
+    // Share of the maximum heap that loaded workspaces may take up.
+    private static final int WORKSPACE_HEAP_SHARE_PERCENT = 25;
+
+    // All workspaces, of which at most a few are in memory.
+    private final Workspaces workspaces;
+
+    // The workspace commands apply to; null until the default one is loaded.
+    private Workspace current;
+
+    // Reads the default workspace in the background while the caller starts up.
+    private final CompletableFuture<List<Task>> loading;
+
+    // The parts of the current workspace, kept in fields for brevity.
+    private TaskList tasks;
+
+    // The storage handler for loading and saving tasks to/from the hard disk.
+    private Storage storage;
+
+    // Cached output of recent FIND and SCHEDULE queries.
+    private QueryCache queryCache;
+
+    // Pending tasks ordered by due date, for UPCOMING and OVERDUE.
+    private DueIndex dueIndex;
+
+    // Trigrams of task descriptions, for typo-tolerant FIND.
+    private TrigramIndex trigramIndex;
+
+    // Bitmaps of tags and fields, for filtered LIST.
+    private TagIndex tagIndex;
+
+    // Interval tree over event times, for conflict warnings and CONFLICTS.
+    private EventIndex eventIndex;
+
+    // Running totals of the tasks, for SUMMARY.
+    private TaskStatistics statistics;
+
+    // Every change to the tasks, for HISTORY and LIST --as-of.
+    private AuditLog auditLog;
+
+    // The group of commands started with BEGIN; null outside a transaction.
+    private Transaction transaction;
+
+    // Shares repeated descriptions and dates between loaded tasks; null unless enabled.
+    private final LoadDeduplicator deduplicator;
+
+    // Sends reminders before tasks are due; null unless enabled.
+    private ReminderScheduler reminders;
+
+    // Runs submitted commands.
+    private final Executor executor;
+
+    // Completes once the most recently submitted command has run.
+    private CompletableFuture<CommandResult> lastSubmitted = CompletableFuture.completedFuture(null);
+
+    /**
+     * Constructs an engine that keeps its tasks in the given file and runs
+     * submitted commands on the common fork-join pool.
+     *
+     * @param filePath The path of the data file of the default workspace;
+     *                 other workspaces are stored next to it.
+     */
+    public GojoEngine(String filePath) {
+        this(filePath, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Constructs an engine that keeps its tasks in the given file.
+     * <p>
+     * The file is read in the background on the given executor, so the
+     * constructor returns at once and the caller can show its prompt; the first
+     * command waits for the load to finish if it has not already. Call
+     * {@link #start()} to build the indexes as soon as the file is read.
+     * </p>
+     *
+     * @param filePath The path of the data file of the default workspace;
+     *                 other workspaces are stored next to it.
+     * @param executor The executor that runs submitted commands.
+     */
+    public GojoEngine(String filePath, Executor executor) {
+        this(filePath, executor, false);
+    }
+
+    /**
+     * Constructs an engine that keeps its tasks in the given file, optionally
+     * sharing repeated descriptions and dates between the tasks it loads.
+     *
+     * @param filePath        The path of the data file of the default workspace;
+     *                        other workspaces are stored next to it.
+     * @param executor        The executor that runs submitted commands.
+     * @param isDeduplicating Whether loaded tasks share equal descriptions and
+     *                        dates; STATS then reports the memory saved.
+     */
+    public GojoEngine(String filePath, Executor executor, boolean isDeduplicating) {
+        this.executor = executor;
+        workspaces = new Workspaces(filePath, MAX_LOADED_WORKSPACES,
+                Runtime.getRuntime().maxMemory() / 100 * WORKSPACE_HEAP_SHARE_PERCENT, QUERY_CACHE_SIZE);
+        deduplicator = isDeduplicating ? new LoadDeduplicator() : null;
+        workspaces.setDeduplicator(deduplicator);
+        workspaces.setHooks(this::workspaceLoaded, this::workspaceEvicted);
+        Storage defaultStorage = workspaces.storageFor(workspaces.getDefaultName());
+        loading = CompletableFuture.supplyAsync(defaultStorage::load, executor);
+    }
+
+    /**
+     * Builds the task list and indexes as soon as the data file has been read,
+     * so that reminders are armed without waiting for the first command.
+     * Without this, they are built when the first command runs.
+     */
+    public void start() {
+        // Registered here rather than in the constructor, so that the engine is
+        // fully built before another thread can call into it
+        loading.thenRun(this::awaitLoad);
+    }
+
+    /**
+     * Starts sending reminders for the tasks of this engine.
+     * The scheduler is kept in step with the task list from then on, and the
+     * REMIND command changes its lead times.
+     *
+     * @param scheduler The scheduler to send reminders with.
+     */
+    public synchronized void enableReminders(ReminderScheduler scheduler) {
+        reminders = scheduler;
+        if (current != null) {
+            workspaceLoaded(current);
+        }
+    }
+
+    /**
+     * Waits for the default workspace to be loaded, then builds its task list
+     * and indexes and makes it current the first time this is called.
+     */
+    private synchronized void awaitLoad() {
+        if (current != null) {
+            return;
+        }
+        List<Task> loaded;
+        try {
+            loaded = loading.join();
+        } catch (CompletionException e) {
+            throw new IllegalStateException("Error loading data: " + e.getCause().getMessage(), e.getCause());
+        }
+        String name = workspaces.getDefaultName();
+        Workspace workspace = new Workspace(name, workspaces.storageFor(name), loaded, QUERY_CACHE_SIZE);
+        workspaces.add(workspace);
+        use(workspace);
+    }
+
+    /**
+     * Makes a workspace the one that commands apply to.
+     */
+    private void use(Workspace workspace) {
+        current = workspace;
+        tasks = workspace.getTasks();
+        storage = workspace.getStorage();
+        queryCache = workspace.getQueryCache();
+        dueIndex = workspace.getDueIndex();
+        trigramIndex = workspace.getTrigramIndex();
+        tagIndex = workspace.getTagIndex();
+        eventIndex = workspace.getEventIndex();
+        statistics = workspace.getStatistics();
+        auditLog = workspace.getAuditLog();
+    }
+
+    private void workspaceLoaded(Workspace workspace) {
+        if (reminders != null) {
+            workspace.getTasks().addListener(reminders);
+            reminders.tasksAdded(workspace.getTasks().getAllTasks());
+        }
+    }
+
+    private void workspaceEvicted(Workspace workspace) {
+        // The tasks are read afresh when the workspace is next used, so the
+        // scheduler must let go of the old copies
+        if (reminders != null) {
+            for (Task task : workspace.getTasks().getAllTasks()) {
+                reminders.taskRemoved(task);
+            }
+        }
+    }
+
+    /**
+     * Queues a command to run on the engine's executor.
+     * <p>
+     * The call returns at once. Commands run strictly in submission order, so a
+     * MARK submitted after a TODO always sees the new task.
+     * </p>
+     *
+     * @param input The command line, as a user would type it.
+     * @return A future completed with the result of the command. It never
+     *         completes exceptionally; failures are reported as error results.
+     */
+    public CompletableFuture<CommandResult> submit(String input) {
+        synchronized (this) {
+            // Chain on the previous command whether or not it succeeded
+            lastSubmitted = lastSubmitted.handleAsync((previous, error) -> execute(input), executor);
+            return lastSubmitted;
+        }
+    }
+
+    /**
+     * Runs a command on the calling thread and returns its result.
+     *
+     * @param input The command line, as a user would type it.
+     * @return The result of the command.
+     */
+    public synchronized CommandResult execute(String input) {
+        if (input.trim().isEmpty()) {
+            return CommandResult.success(null, new ArrayList<>(), new ArrayList<>());
+        }
+        Command command = null;
+        List<String> lines = new ArrayList<>();
+        List<Task> involved = new ArrayList<>();
+        try {
+            // A failed load is reported like any other error, so submit() never completes exceptionally
+            awaitLoad();
+            // Parse the command and arguments separately
+            command = Parser.parseCommand(input);
+            String arguments = Parser.getArguments(input);
+
+            // Handle the command based on its type
+            switch (command) {
+                case BYE:
+                    // Unsaved changes of an open transaction are dropped rather than half-kept
+                    if (transaction != null) {
+                        rollback();
+                        lines.add("Rolled back the changes made since BEGIN.");
+                    }
+                    // Exit the application
+                    lines.add("Bye, until next time - Stay Limitless ♾️");
+                    return CommandResult.exit(command, lines);
+
+                case LIST:
+                    if (arguments.trim().startsWith("--as-of")) {
+                        // Rebuild the list as it was at an earlier time from the audit log
+                        String asOfText = arguments.trim().substring("--as-of".length()).trim();
+                        if (asOfText.isEmpty()) {
+                            throw new ChatbotExceptions("Please specify a date, e.g. list --as-of last monday.");
+                        }
+                        LocalDateTime asOf = DateParser.parseDateTime(asOfText);
+                        List<Task> past = auditLog.asOf(asOf);
+                        involved.addAll(past);
+                        if (past.isEmpty()) {
+                            lines.add("The list was empty on " + DateParser.formatDateTime(asOf) + ".");
+                            break;
+                        }
+                        lines.add("Here are the tasks in your list on " + DateParser.formatDateTime(asOf) + ":");
+                        for (int i = 0; i < past.size(); i++) {
+                            lines.add((i + 1) + ". " + past.get(i));
+                        }
+                        break;
+                    }
+                    if (!arguments.isEmpty()) {
+                        // Filter by tags, fields and status through the tag index
+                        List<TagIndex.Match> filtered = filterTasks(arguments);
+                        if (filtered.isEmpty()) {
+                            lines.add("No tasks match '" + arguments + "'.");
+                            break;
+                        }
+                        lines.add("Here are the matching tasks in your list:");
+                        for (TagIndex.Match match : filtered) {
+                            involved.add(match.getTask());
+                            lines.add((match.getIndex() + 1) + ". " + match.getTask());
+                        }
+                        break;
+                    }
+                    // Display all tasks in the list
+                    lines.add("Here are the tasks in your list:");
+                    involved.addAll(tasks.getAllTasks());
+                    LocalDateTime now = LocalDateTime.now();
+                    for (int i = 0; i < tasks.size(); i++) {
+                        // Display 1-based index and task details
+                        Task listed = tasks.get(i);
+                        String line = (i + 1) + ". " + listed;
+                        if (listed instanceof RecurringTask) {
+                            // Only expand the one occurrence that is coming up next
+                            LocalDateTime next = ((RecurringTask) listed).nextOccurrence(now);
+                            if (next != null) {
+                                line += " next: " + DateParser.formatDateTime(next);
+                            }
+                        }
+                        lines.add(line);
+                    }
+                    break;
+
+                case UNMARK:
+                    // Marks a task as incomplete
+                    if (arguments.isEmpty()) {
+                        throw new ChatbotExceptions("Please specify a task number to unmark.");
+                    }
+                    int taskNumber = Parser.parseIndex(arguments);
+                    Task task = tasks.markAsNotDone(taskNumber);
+                    involved.add(task);
+                    lines.add("OK, I've marked this task as not done yet:");
+                    lines.add(task.toString());
+                    // Save changes to storage immediately
+                    save();
+                    break;
+
+                case MARK:
+                    // Marks a task as complete
+                    if (arguments.isEmpty()) {
+                        throw new ChatbotExceptions("Please specify a task number to mark.");
+                    }
+
+                    // Parse index and retrieve task
+                    // Note: TaskList.get throws ChatbotExceptions if OOB.
+                    int markIndex = Parser.parseIndex(arguments);
+                    Task markTask = tasks.markAsDone(markIndex);
+                    involved.add(markTask);
+                    lines.add("Nice! I've marked this task as done:");
+                    lines.add(markTask.toString());
+                    save();
+                    break;
+
+                case TODO:
+                    // Adds a new ToDo task
+                    if (tasks.size() >= 100) {
+                        refuseAdd(command, lines);
+                    } else {
+                        if (arguments.isEmpty()) {
+                            throw new ChatbotExceptions("OOPS!!! The description of a todo cannot be empty.");
+                        }
+                        Task newTask = new Todo(arguments.trim());
+                        tasks.add(newTask);
+                        involved.add(newTask);
+                        lines.add("Got it. I've added this task:");
+                        lines.add("  " + newTask);
+                        lines.add("Now you have " + tasks.size() + " tasks in the list.");
+                        save();
+                    }
+                    break;
+
+                case DEADLINE:
+                    // Adds a new Deadline task
+                    if (tasks.size() >= 100) {
+                        refuseAdd(command, lines);
+                    } else {
+                        if (arguments.isEmpty()) {
+                            throw new ChatbotExceptions("OOPS!!! The description of a deadline cannot be empty.");
+                        }
+                        // Split argument to separate description and date
+                        String[] parts = arguments.split(" /by ");
+                        if (parts.length < 2) {
+                            throw new ChatbotExceptions("OOPS!!! The deadline cannot be empty.");
+                        }
+                        String description = parts[0].trim();
+                        if (description.length() == 0) {
+                            throw new ChatbotExceptions("OOPS!!! The description of a deadline cannot be empty.");
+                        }
+                        String by = parts[1].trim();
+                        Task newTask = new Deadline(description, by);
+                        tasks.add(newTask);
+                        involved.add(newTask);
+                        lines.add("Got it. I've added this task:");
+                        lines.add("  " + newTask);
+                        lines.add("Now you have " + tasks.size() + " tasks in the list.");
+                        save();
+                    }
+                    break;
+
+                case EVENT:
+                    // Adds a new Event task
+                    if (tasks.size() >= 100) {
+                        refuseAdd(command, lines);
+                    } else {
+                        if (arguments.isEmpty()) {
+                            throw new ChatbotExceptions("OOPS!!! The description of a event cannot be empty.");
+                        }
+                        // Split argument to check for /from delimiter
+                        String[] parts = arguments.split(" /from ");
+                        if (parts.length < 2) {
+                            throw new ChatbotExceptions("OOPS!!! The event cannot be empty.");
+                        }
+                        String description = parts[0].trim();
+                        if (description.length() == 0) {
+                            throw new ChatbotExceptions("OOPS!!! The description of a event cannot be empty.");
+                        }
+                        // Split second part to check for /to delimiter
+                        String[] timeParts = parts[1].split(" /to ");
+                        if (timeParts.length < 2) {
+                            throw new ChatbotExceptions("OOPS!!! The event time is missing.");
+                        }
+                        String from = timeParts[0].trim();
+                        String to = timeParts[1].trim();
+                        Event newTask = new Event(description, from, to);
+                        tasks.add(newTask);
+                        involved.add(newTask);
+                        lines.add("Got it. I've added this task:");
+                        lines.add("  " + newTask);
+                        lines.add("Now you have " + tasks.size() + " tasks in the list.");
+                        List<Event> clashes = eventIndex.conflictsWith(newTask);
+                        if (!clashes.isEmpty()) {
+                            lines.add("Heads up, it overlaps with:");
+                            for (Event clash : clashes) {
+                                lines.add("  " + clash);
+                            }
+                        }
+                        save();
+                    }
+                    break;
+
+                case RECUR:
+                    // Adds a new recurring task, stored as a single rule
+                    if (tasks.size() >= 100) {
+                        refuseAdd(command, lines);
+                    } else {
+                        if (arguments.isEmpty()) {
+                            throw new ChatbotExceptions(
+                                    "OOPS!!! The description of a recurring task cannot be empty.");
+                        }
+                        // Split argument into description, start, frequency and end date
+                        String[] parts = arguments.split(" /from ");
+                        if (parts.length < 2) {
+                            throw new ChatbotExceptions("OOPS!!! The start of a recurring task cannot be empty.");
+                        }
+                        String description = parts[0].trim();
+                        if (description.length() == 0) {
+                            throw new ChatbotExceptions(
+                                    "OOPS!!! The description of a recurring task cannot be empty.");
+                        }
+                        String[] ruleParts = parts[1].split(" /every ");
+                        if (ruleParts.length < 2) {
+                            throw new ChatbotExceptions(
+                                    "OOPS!!! Please say how often it repeats, e.g. /every week.");
+                        }
+                        String[] untilParts = ruleParts[1].split(" /until ");
+                        if (untilParts.length < 2) {
+                            throw new ChatbotExceptions(
+                                    "OOPS!!! Please say when it stops repeating, e.g. /until 1/3/2020.");
+                        }
+                        String start = ruleParts[0].trim();
+                        String frequency = untilParts[0].trim();
+                        String until = untilParts[1].trim();
+                        Task newTask = new RecurringTask(description, start, frequency, until);
+                        tasks.add(newTask);
+                        involved.add(newTask);
+                        lines.add("Got it. I've added this task:");
+                        lines.add("  " + newTask);
+                        lines.add("Now you have " + tasks.size() + " tasks in the list.");
+                        save();
+                    }
+                    break;
+
+                case DELETE:
+                    // Deletes a task from the list
+                    if (arguments.isEmpty()) {
+                        throw new ChatbotExceptions("Please specify a task number to delete.");
+                    }
+                    int deleteIndex = Parser.parseIndex(arguments);
+                    Task removedTask = tasks.delete(deleteIndex);
+                    involved.add(removedTask);
+                    lines.add("Noted. I've removed this task:");
+                    lines.add("  " + removedTask);
+                    lines.add("Now you have " + tasks.size() + " tasks in the list.");
+                    save();
+                    break;
+
+                case SCHEDULE:
+                    // Lists tasks scheduled for a specific date
+                    if (arguments.isEmpty()) {
+                        throw new ChatbotExceptions("Please specify a date to view the schedule.");
+                    }
+
+                    // Relative dates such as "today" or "in 2 hours" resolve differently over
+                    // time, so the cache is keyed by the date they resolve to now
+                    LocalDate queryDate = DateParser.parseDateTime(arguments).toLocalDate();
+                    String scheduleKey = "SCHEDULE " + queryDate;
+                    List<String> scheduleLines = queryCache.get(scheduleKey);
+                    if (scheduleLines == null) {
+                        scheduleLines = new ArrayList<>();
+                        scheduleLines.add(
+                                "Tasks for " + queryDate.format(DateTimeFormatter.ofPattern("MMM d yyyy")) + ":");
+                        List<Task> scheduledTasks = new ArrayList<>();
+                        for (Task t : tasks.getAllTasks()) {
+                            List<String> taskLines = renderSchedule(t, queryDate);
+                            if (!taskLines.isEmpty()) {
+                                scheduledTasks.add(t);
+                                scheduleLines.addAll(taskLines);
+                            }
+                        }
+
+                        if (scheduledTasks.isEmpty()) {
+                            scheduleLines.add("  No tasks scheduled for this date.");
+                        }
+                        queryCache.put(scheduleKey, scheduleLines, scheduledTasks,
+                                t -> !renderSchedule(t, queryDate).isEmpty());
+                    }
+                    involved.addAll(queryCache.getTasks(scheduleKey));
+
+                    for (String line : scheduleLines) {
+                        lines.add(line);
+                    }
+                    break;
+
+                case FIND:
+                    // Finds tasks by keyword
+                    if (arguments.isEmpty()) {
+                        throw new ChatbotExceptions("Please specify a keyword to search for.");
+                    }
+                    String keyword = arguments.trim();
+                    if (keyword.startsWith("--all ")) {
+                        // Searches every workspace at once
+                        String allKeyword = keyword.substring("--all ".length()).trim();
+                        Map<String, List<Task>> found = workspaces.findAll(allKeyword);
+                        if (found.isEmpty()) {
+                            throw new ChatbotExceptions(
+                                    "No tasks matching '" + allKeyword + "' found in any workspace.");
+                        }
+                        lines.add("Here are the matching tasks in your workspaces:");
+                        for (Map.Entry<String, List<Task>> entry : found.entrySet()) {
+                            lines.add(entry.getKey() + ":");
+                            for (int i = 0; i < entry.getValue().size(); i++) {
+                                lines.add("  " + (i + 1) + "." + entry.getValue().get(i));
+                            }
+                            involved.addAll(entry.getValue());
+                        }
+                        break;
+                    }
+                    String findKey = "FIND " + keyword;
+                    List<String> findLines = queryCache.get(findKey);
+                    if (findLines == null) {
+                        List<Task> matchingTasks = tasks.findTasks(keyword);
+                        findLines = new ArrayList<>();
+                        if (!matchingTasks.isEmpty()) {
+                            findLines.add("Here are the matching tasks in your list:");
+                        } else {
+                            // Fall back to close matches, so a typo does not need a retry
+                            matchingTasks = trigramIndex.search(keyword);
+                            if (!matchingTasks.isEmpty()) {
+                                findLines.add("No exact matches for '" + keyword + "'. Did you mean:");
+                            }
+                        }
+                        for (int i = 0; i < matchingTasks.size(); i++) {
+                            // Display 1-based index and task details
+                            findLines.add((i + 1) + "." + matchingTasks.get(i));
+                        }
+                        queryCache.put(findKey, findLines, matchingTasks, t -> t.description.contains(keyword)
+                                || TrigramIndex.matches(keyword, t.description));
+                    }
+                    involved.addAll(queryCache.getTasks(findKey));
+
+                    if (findLines.isEmpty()) {
+                        throw new ChatbotExceptions("No tasks matching '" + keyword + "' found.");
+                    }
+                    for (String line : findLines) {
+                        lines.add(line);
+                    }
+                    break;
+
+                case HISTORY:
+                    // Shows every recorded change to a task
+                    if (arguments.isEmpty()) {
+                        throw new ChatbotExceptions("Please specify a task number to show the history of.");
+                    }
+                    Task historyTask = tasks.get(Parser.parseIndex(arguments));
+                    involved.add(historyTask);
+                    List<AuditLog.Entry> entries = auditLog.history(historyTask);
+                    if (entries.isEmpty()) {
+                        lines.add("No changes to this task have been recorded yet:");
+                        lines.add("  " + historyTask);
+                        break;
+                    }
+                    lines.add("Here is the history of this task:");
+                    lines.add("  " + historyTask);
+                    for (AuditLog.Entry entry : entries) {
+                        lines.add(DateParser.formatDateTime(entry.getTime()) + " " + describe(entry.getOperation()));
+                    }
+                    break;
+
+                case UPCOMING:
+                    // Lists the next few pending tasks by due date
+                    int limit = DEFAULT_UPCOMING;
+                    if (!arguments.isEmpty()) {
+                        try {
+                            limit = Integer.parseInt(arguments.trim());
+                        } catch (NumberFormatException e) {
+                            throw new ChatbotExceptions(
+                                    "OOPS!!! Please give the number of tasks, e.g. upcoming 5.");
+                        }
+                        if (limit <= 0) {
+                            throw new ChatbotExceptions("OOPS!!! The number of tasks must be positive.");
+                        }
+                    }
+                    List<DueIndex.Due> upcoming = dueIndex.upcoming(LocalDateTime.now(), limit);
+                    if (upcoming.isEmpty()) {
+                        lines.add("Nothing is coming up.");
+                        break;
+                    }
+                    lines.add("Here is what is coming up next:");
+                    addDueLines(lines, involved, upcoming);
+                    break;
+
+                case OVERDUE:
+                    // Lists pending deadlines that have passed and events that have ended
+                    List<DueIndex.Due> overdue = dueIndex.overdue(LocalDateTime.now());
+                    if (overdue.isEmpty()) {
+                        lines.add("Nothing is overdue.");
+                        break;
+                    }
+                    lines.add("These tasks are overdue:");
+                    addDueLines(lines, involved, overdue);
+                    break;
+
+                case CONFLICTS:
+                    // Lists overlapping events, optionally on one day or between two dates
+                    LocalDateTime rangeFrom = LocalDateTime.MIN;
+                    LocalDateTime rangeTo = LocalDateTime.MAX;
+                    if (!arguments.isEmpty()) {
+                        String[] range = arguments.split(" /to ");
+                        rangeFrom = DateParser.parseDateTime(range[0].trim());
+                        if (range.length > 1) {
+                            rangeTo = DateParser.parseDateTime(range[1].trim());
+                        } else {
+                            rangeFrom = rangeFrom.toLocalDate().atStartOfDay();
+                            rangeTo = rangeFrom.plusDays(1);
+                        }
+                    }
+                    List<Event[]> conflicts = eventIndex.conflicts(rangeFrom, rangeTo);
+                    if (conflicts.isEmpty()) {
+                        lines.add("No events overlap.");
+                        break;
+                    }
+                    lines.add("These events overlap:");
+                    for (int i = 0; i < conflicts.size(); i++) {
+                        Event[] pair = conflicts.get(i);
+                        lines.add((i + 1) + "." + pair[0]);
+                        lines.add("  and " + pair[1]);
+                        involved.add(pair[0]);
+                        involved.add(pair[1]);
+                    }
+                    break;
+
+                case REMIND:
+                    // Shows or changes the lead times of reminders
+                    if (reminders == null) {
+                        throw new ChatbotExceptions("Reminders are not enabled.");
+                    }
+                    if (arguments.trim().equalsIgnoreCase("off")) {
+                        reminders.setLeadTimes(new ArrayList<>());
+                    } else if (!arguments.isEmpty()) {
+                        reminders.setLeadTimes(ReminderScheduler.parseLeadTimes(arguments));
+                    }
+                    List<String> leads = new ArrayList<>();
+                    for (Duration lead : reminders.getLeadTimes()) {
+                        leads.add(lead.isZero() ? "when due" : ReminderScheduler.describeLead(lead) + " before");
+                    }
+                    if (leads.isEmpty()) {
+                        lines.add("Reminders are off.");
+                        break;
+                    }
+                    lines.add("Reminding you " + String.join(", ", leads) + ".");
+                    LocalDateTime nextReminder = reminders.getNextReminder();
+                    if (nextReminder != null) {
+                        lines.add("Next reminder at " + DateParser.formatDateTime(nextReminder) + ".");
+                    }
+                    break;
+
+                case USE:
+                    // Switches to another workspace, loading it if needed
+                    if (arguments.isEmpty()) {
+                        throw new ChatbotExceptions("Please specify the name of a workspace to use.");
+                    }
+                    if (transaction != null) {
+                        throw new ChatbotExceptions("OOPS!!! Please COMMIT or ROLLBACK before switching workspaces.");
+                    }
+                    use(workspaces.get(arguments.trim()));
+                    lines.add("Now using workspace '" + current.getName() + "' with " + tasks.size() + " tasks.");
+                    break;
+
+                case LISTS:
+                    // Lists every workspace and whether it is in memory
+                    lines.add("Here are your workspaces:");
+                    for (String name : workspaces.names()) {
+                        int size = workspaces.sizeOf(name);
+                        lines.add((name.equals(current.getName()) ? "* " : "  ") + name
+                                + (size < 0 ? " (not loaded)" : " (" + size + " tasks)"));
+                    }
+                    break;
+
+                case SUMMARY:
+                    // Reads the running totals instead of scanning the list
+                    lines.addAll(statistics.summarize(LocalDate.now()));
+                    break;
+
+                case STATS:
+                    // Shows how well the query cache and load deduplication are doing
+                    lines.add(queryCache.getStats());
+                    if (deduplicator != null) {
+                        lines.add(deduplicator.getStats());
+                    }
+                    break;
+
+                case VERIFY:
+                    // Scans the data file for damaged records without loading it
+                    for (String line : storage.verify()) {
+                        lines.add(line);
+                    }
+                    break;
+
+                case EXPORT:
+                    // Streams every task out to an external file
+                    if (arguments.isEmpty()) {
+                        throw new ChatbotExceptions("Please specify a .csv, .jsonl or .ics file to export to.");
+                    }
+                    String exportPath = arguments.trim();
+                    int exported = TaskTransfer.exportTasks(tasks.getAllTasks(), exportPath);
+                    lines.add("Exported " + exported + " tasks to " + exportPath + ".");
+                    break;
+
+                case IMPORT:
+                    // Streams tasks in from an external file and adds them as one batch.
+                    // Bulk imports are not subject to the per-command item limit.
+                    if (arguments.isEmpty()) {
+                        throw new ChatbotExceptions("Please specify a .csv, .jsonl or .ics file to import.");
+                    }
+                    String importPath = arguments.trim();
+                    List<Task> imported = TaskTransfer.importTasks(importPath);
+                    tasks.addAll(imported);
+                    auditLog.requestCheckpoint();
+                    involved.addAll(imported);
+                    lines.add("Imported " + imported.size() + " tasks from " + importPath + ".");
+                    lines.add("Now you have " + tasks.size() + " tasks in the list.");
+                    save();
+                    break;
+
+                case ARCHIVE:
+                    // Without a number, show what has been archived so far
+                    if (arguments.isEmpty()) {
+                        List<Task> archived = storage.loadArchive();
+                        involved.addAll(archived);
+                        if (archived.isEmpty()) {
+                            lines.add("The archive is empty.");
+                        }
+                        for (int i = 0; i < archived.size(); i++) {
+                            lines.add((i + 1) + ". " + archived.get(i));
+                        }
+                        break;
+                    }
+
+                    // Moves done tasks older than the given number of days to the cold file
+                    if (transaction != null) {
+                        // The archive file is written at once and cannot be rolled back. Nothing
+                        // has changed, so the refusal leaves the transaction as it was.
+                        return CommandResult.error(command, "OOPS!!! Please COMMIT or ROLLBACK before archiving.");
+                    }
+                    int days;
+                    try {
+                        days = Integer.parseInt(arguments.trim());
+                    } catch (NumberFormatException e) {
+                        throw new ChatbotExceptions("OOPS!!! Please give the age in days, e.g. archive 30.");
+                    }
+                    if (days < 0) {
+                        throw new ChatbotExceptions("OOPS!!! The number of days cannot be negative.");
+                    }
+                    LocalDateTime cutoff = LocalDateTime.now().minusDays(days);
+                    List<Task> oldTasks = new ArrayList<>();
+                    for (Task t : tasks.getAllTasks()) {
+                        LocalDateTime date = archiveDate(t);
+                        if (t.isDone && date != null && date.isBefore(cutoff)) {
+                            oldTasks.add(t);
+                        }
+                    }
+                    if (oldTasks.isEmpty()) {
+                        lines.add("No done tasks older than " + days + " days to archive.");
+                        break;
+                    }
+                    // Write the archive before the data file, so a crash in between
+                    // duplicates tasks rather than losing them
+                    storage.archive(oldTasks);
+                    tasks.deleteAll(oldTasks);
+                    auditLog.requestCheckpoint();
+                    involved.addAll(oldTasks);
+                    save();
+                    lines.add(
+                            "Archived " + oldTasks.size() + " done tasks to " + storage.getArchivePath() + ".");
+                    lines.add("Now you have " + tasks.size() + " tasks in the list.");
+                    break;
+
+                case BEGIN:
+                    // Groups the following commands so that they are saved together or not at all
+                    if (transaction != null) {
+                        throw new ChatbotExceptions("OOPS!!! A transaction is already open.");
+                    }
+                    transaction = new Transaction(tasks);
+                    lines.add("Started a transaction. Changes are saved at COMMIT or undone at ROLLBACK.");
+                    break;
+
+                case COMMIT:
+                    if (transaction == null) {
+                        throw new ChatbotExceptions("OOPS!!! There is no transaction to commit.");
+                    }
+                    if (transaction.isRollbackOnly()) {
+                        rollback();
+                        throw new ChatbotExceptions(
+                                "OOPS!!! A command in the transaction failed, so all of its changes were undone.");
+                    }
+                    // Keep the transaction open until the save succeeds, so a failed write can be
+                    // retried or rolled back instead of leaking into the next command's save
+                    Transaction committing = transaction;
+                    transaction = null;
+                    try {
+                        save();
+                    } catch (ChatbotExceptions e) {
+                        transaction = committing;
+                        throw e;
+                    }
+                    lines.add("Committed. Now you have " + tasks.size() + " tasks in the list.");
+                    break;
+
+                case ROLLBACK:
+                    if (transaction == null) {
+                        throw new ChatbotExceptions("OOPS!!! There is no transaction to roll back.");
+                    }
+                    rollback();
+                    lines.add("Rolled back. Now you have " + tasks.size() + " tasks in the list.");
+                    break;
+            }
+            return CommandResult.success(command, lines, involved);
+        } catch (ChatbotExceptions ce) {
+            // specific chatbot exceptions are reported as errors
+            failTransaction(command);
+            return CommandResult.error(command, ce.getMessage());
+        } catch (Exception e) {
+            // catch-all for other unexpected exceptions
+            failTransaction(command);
+            return CommandResult.error(command, "Something went wrong: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Returns the tasks currently managed by the engine.
+     *
+     * @return The task list.
+     */
+    public TaskList getTasks() {
+        awaitLoad();
+        return tasks;
+    }
+
+    /**
+     * Saves the task list and writes its changes to the audit log, unless a
+     * transaction is open, in which case both happen once at COMMIT.
+     *
+     * @throws ChatbotExceptions If the data file or the audit log cannot be written.
+     */
+    private void save() throws ChatbotExceptions {
+        if (transaction == null) {
+            storage.save(tasks.getAllTasks());
+            auditLog.flush();
+        }
+    }
+
+    /**
+     * Reports that the list is full instead of adding a task. Inside a
+     * transaction the refusal fails it like any other failed change, since the
+     * commands after it may rely on the task being there.
+     *
+     * @param command The add command that was refused.
+     * @param lines   The output lines to report the refusal in.
+     */
+    private void refuseAdd(Command command, List<String> lines) {
+        lines.add("Cannot add more than 100 items");
+        failTransaction(command);
+    }
+
+    /**
+     * Undoes the open transaction and drops its changes from the audit log.
+     */
+    private void rollback() {
+        transaction.rollback(tasks);
+        transaction = null;
+        auditLog.discard();
+    }
+
+    /**
+     * Marks the open transaction, if any, as failed after a command that
+     * changes the task list failed in it. Commands that only read, such as a
+     * FIND without matches, leave the transaction as it was.
+     *
+     * @param command The command that failed, or null if it was not recognised.
+     */
+    private void failTransaction(Command command) {
+        if (transaction != null && changesTasks(command)) {
+            transaction.markRollbackOnly();
+        }
+    }
+
+    /**
+     * Returns whether a command adds, deletes or marks tasks.
+     *
+     * @param command The command, or null.
+     * @return True if the command changes the task list.
+     */
+    private static boolean changesTasks(Command command) {
+        if (command == null) {
+            return false;
+        }
+        switch (command) {
+            case MARK:
+            case UNMARK:
+            case TODO:
+            case DEADLINE:
+            case EVENT:
+            case RECUR:
+            case DELETE:
+            case IMPORT:
+            case ARCHIVE:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Returns the tasks passing a LIST filter such as "#infra owner=alice --pending".
+     *
+     * @param arguments The filter words.
+     * @return The matching tasks with their positions in the list.
+     * @throws ChatbotExceptions If a word is not a tag, a field or a status flag.
+     */
+    private List<TagIndex.Match> filterTasks(String arguments) throws ChatbotExceptions {
+        List<String> terms = new ArrayList<>();
+        Boolean done = null;
+        for (String word : arguments.trim().split("\\s+")) {
+            int equals = word.indexOf('=');
+            if (word.equals("--pending")) {
+                done = false;
+            } else if (word.equals("--done")) {
+                done = true;
+            } else if (word.length() > 1 && word.startsWith("#")) {
+                terms.add(TagIndex.tagTerm(word));
+            } else if (equals > 0 && equals < word.length() - 1) {
+                terms.add(TagIndex.fieldTerm(word.substring(0, equals), word.substring(equals + 1)));
+            } else {
+                throw new ChatbotExceptions("OOPS!!! I can only filter by #tag, key=value, --pending or --done.");
+            }
+        }
+        return tagIndex.query(terms, done);
+    }
+
+    /**
+     * Adds a numbered list of tasks together with when each is due.
+     *
+     * @param lines    The output lines to add to.
+     * @param involved The tasks of the result, to add the shown tasks to.
+     * @param dueTasks The tasks to show, in order.
+     */
+    private static void addDueLines(List<String> lines, List<Task> involved, List<DueIndex.Due> dueTasks) {
+        for (int i = 0; i < dueTasks.size(); i++) {
+            DueIndex.Due due = dueTasks.get(i);
+            String line = (i + 1) + "." + due.getTask();
+            if (due.getTask() instanceof RecurringTask) {
+                line += " next: " + DateParser.formatDateTime(due.getDue());
+            }
+            lines.add(line);
+            involved.add(due.getTask());
+        }
+    }
+
+    /**
+     * Describes a change recorded in the audit log for HISTORY.
+     *
+     * @param operation The kind of change.
+     * @return The words shown for it.
+     */
+    private static String describe(AuditLog.Operation operation) {
+        switch (operation) {
+            case ADD:
+                return "added";
+            case DELETE:
+                return "deleted";
+            case MARK:
+                return "marked as done";
+            default:
+                return "marked as not done";
+        }
+    }
+
+    /**
+     * Returns the date that decides how old a task is for archiving.
+     *
+     * @param t The task to check.
+     * @return The deadline, the end of an event or the last occurrence of a
+     *         recurring task, or null for a todo, which has no date.
+     */
+    private static LocalDateTime archiveDate(Task t) {
+        if (t instanceof Deadline) {
+            return ((Deadline) t).by;
+        } else if (t instanceof Event) {
+            return ((Event) t).to;
+        } else if (t instanceof RecurringTask) {
+            return ((RecurringTask) t).until;
+        }
+        return null;
+    }
+
+    /**
+     * Renders the schedule lines of a task for the given date.
+     *
+     * @param t         The task to render.
+     * @param queryDate The date being viewed.
+     * @return The lines to show, or an empty list if the task is not scheduled on
+     *         that date.
+     */
+    private static List<String> renderSchedule(Task t, LocalDate queryDate) {
+        List<String> lines = new ArrayList<>();
+        if (t instanceof Deadline) {
+            Deadline d = (Deadline) t;
+            if (d.by.toLocalDate().equals(queryDate)) {
+                lines.add("  [D] " + d.description + " (due: " + DateParser.formatDateTime(d.by) + ")");
+            }
+        } else if (t instanceof Event) {
+            Event e = (Event) t;
+            LocalDate startDate = e.from.toLocalDate();
+            LocalDate endDate = e.to.toLocalDate();
+            // Check if queryDate is within [startDate, endDate]
+            if (!queryDate.isBefore(startDate) && !queryDate.isAfter(endDate)) {
+                lines.add("  [E] " + e.description + " (from: " + DateParser.formatDateTime(e.from)
+                        + " to: " + DateParser.formatDateTime(e.to) + ")");
+            }
+        } else if (t instanceof RecurringTask) {
+            RecurringTask r = (RecurringTask) t;
+            // Expand only the occurrences that fall on the queried date
+            for (LocalDateTime occurrence : r.occurrencesBetween(queryDate, queryDate)) {
+                lines.add("  [R] " + r.description + " (at: " + DateParser.formatDateTime(occurrence) + ")");
+            }
+        }
+        return lines;
+    }
+
+}
@@ -0,0 +1,332 @@
+package gojo;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads and writes tasks as an iCalendar (.ics) file.
+ * <p>
+ * Todos and deadlines become VTODO components (a deadline carries a DUE
+ * date), while events and recurring tasks become VEVENT components (a
+ * recurring task carries an RRULE). Times are written as floating local
+ * times. Unknown components and properties are skipped on import.
+ * </p>
+ */
+class ICalendarFormat implements TaskFormat {
+    private static final int MAX_LINE_OCTETS = 75;
+
+    private long nextUid = 1;
+    private final String stamp = formatIcsDateTime(LocalDateTime.now(ZoneOffset.UTC)) + "Z";
+
+    @Override
+    public void writeHeader(Writer out) throws IOException {
+        out.write("BEGIN:VCALENDAR\r\n");
+        out.write("VERSION:2.0\r\n");
+        out.write("PRODID:-//gojo//task export//EN\r\n");
+    }
+
+    @Override
+    public void write(Task task, Writer out) throws IOException {
+        boolean isEvent = task instanceof Event || task instanceof RecurringTask;
+        String component = isEvent ? "VEVENT" : "VTODO";
+        out.write("BEGIN:" + component + "\r\n");
+        out.write("UID:gojo-" + nextUid++ + "-" + stamp + "\r\n");
+        out.write("DTSTAMP:" + stamp + "\r\n");
+        writeFolded("SUMMARY:" + escapeText(task.description), out);
+        if (task instanceof Deadline) {
+            out.write("DUE:" + formatIcsDateTime(((Deadline) task).by) + "\r\n");
+        } else if (task instanceof Event) {
+            Event event = (Event) task;
+            out.write("DTSTART:" + formatIcsDateTime(event.from) + "\r\n");
+            out.write("DTEND:" + formatIcsDateTime(event.to) + "\r\n");
+        } else if (task instanceof RecurringTask) {
+            RecurringTask recurring = (RecurringTask) task;
+            out.write("DTSTART:" + formatIcsDateTime(recurring.start) + "\r\n");
+            out.write("RRULE:FREQ=" + toIcsFrequency(recurring.frequency) + ";UNTIL="
+                    + formatIcsDateTime(recurring.until) + "\r\n");
+        }
+        if (isEvent) {
+            // VEVENT has no completion status of its own
+            if (task.isDone) {
+                out.write("X-GOJO-DONE:TRUE\r\n");
+            }
+        } else {
+            out.write("STATUS:" + (task.isDone ? "COMPLETED" : "NEEDS-ACTION") + "\r\n");
+        }
+        out.write("END:" + component + "\r\n");
+    }
+
+    @Override
+    public void writeFooter(Writer out) throws IOException {
+        out.write("END:VCALENDAR\r\n");
+    }
+
+    @Override
+    public void read(BufferedReader in, List<Task> batch) throws IOException, ChatbotExceptions {
+        Deque<String> components = new ArrayDeque<>();
+        Map<String, String> properties = new HashMap<>();
+        long componentLine = 0;
+
+        // Folded lines continue on the next physical line after a single space or
+        // tab, so one line of look-ahead is needed to unfold them.
+        String pending = in.readLine();
+        long physicalLine = 1;
+        while (pending != null) {
+            long lineNumber = physicalLine;
+            StringBuilder logical = new StringBuilder(pending);
+            String next;
+            while ((next = in.readLine()) != null) {
+                physicalLine++;
+                if (next.isEmpty() || (next.charAt(0) != ' ' && next.charAt(0) != '\t')) {
+                    break;
+                }
+                logical.append(next, 1, next.length());
+            }
+            pending = next;
+
+            String line = logical.toString();
+            int colon = line.indexOf(':');
+            if (colon < 0) {
+                continue;
+            }
+            String name = line.substring(0, colon);
+            int semicolon = name.indexOf(';');
+            if (semicolon >= 0) {
+                name = name.substring(0, semicolon);
+            }
+            name = name.toUpperCase();
+            String value = line.substring(colon + 1);
+
+            if (name.equals("BEGIN")) {
+                components.push(value.toUpperCase());
+                if (isTaskComponent(value)) {
+                    properties.clear();
+                    componentLine = lineNumber;
+                }
+            } else if (name.equals("END")) {
+                String ended = components.isEmpty() ? "" : components.pop();
+                if (isTaskComponent(ended)) {
+                    try {
+                        batch.add(createTask(ended, properties));
+                    } catch (ChatbotExceptions e) {
+                        throw TaskTransfer.invalidRecord(componentLine, e);
+                    }
+                }
+            } else if (!components.isEmpty() && isTaskComponent(components.peek())) {
+                // Only keep properties of the task itself, not of nested alarms
+                properties.put(name, value);
+            }
+        }
+    }
+
+    private static boolean isTaskComponent(String component) {
+        return component.equalsIgnoreCase("VTODO") || component.equalsIgnoreCase("VEVENT");
+    }
+
+    private static Task createTask(String component, Map<String, String> properties) throws ChatbotExceptions {
+        String summary = properties.get("SUMMARY");
+        if (summary == null) {
+            throw new ChatbotExceptions("the SUMMARY is missing");
+        }
+        String description = TaskTransfer.cleanDescription(unescapeText(summary));
+        boolean isDone = "COMPLETED".equalsIgnoreCase(properties.get("STATUS"))
+                || "TRUE".equalsIgnoreCase(properties.get("X-GOJO-DONE"));
+
+        Task task;
+        if (component.equals("VTODO")) {
+            String due = properties.get("DUE");
+            task = due == null ? new Todo(description) : new Deadline(description, parseIcsDateTime(due, true));
+        } else {
+            String start = properties.get("DTSTART");
+            if (start == null) {
+                throw new ChatbotExceptions("the DTSTART is missing");
+            }
+            LocalDateTime from = parseIcsDateTime(start, false);
+            String rule = properties.get("RRULE");
+            if (rule != null) {
+                task = createRecurringTask(description, from, rule);
+            } else {
+                String end = properties.get("DTEND");
+                task = new Event(description, from, end == null ? from : parseEventEnd(end, from));
+            }
+        }
+        if (isDone) {
+            task.markAsDone();
+        }
+        return task;
+    }
+
+    private static Task createRecurringTask(String description, LocalDateTime start, String rule)
+            throws ChatbotExceptions {
+        Frequency frequency = null;
+        LocalDateTime until = null;
+        long count = -1;
+        for (String part : rule.split(";")) {
+            int equals = part.indexOf('=');
+            if (equals < 0) {
+                continue;
+            }
+            String key = part.substring(0, equals).toUpperCase();
+            String value = part.substring(equals + 1);
+            switch (key) {
+                case "FREQ":
+                    frequency = fromIcsFrequency(value);
+                    break;
+                case "UNTIL":
+                    until = parseIcsDateTime(value, true);
+                    break;
+                case "COUNT":
+                    try {
+                        count = Long.parseLong(value);
+                    } catch (NumberFormatException e) {
+                        throw new ChatbotExceptions("the RRULE COUNT is not a number");
+                    }
+                    break;
+                default:
+                    // INTERVAL, BYDAY and friends have no equivalent in a Gojo rule
+                    break;
+            }
+        }
+        if (frequency == null) {
+            throw new ChatbotExceptions("the RRULE has no FREQ");
+        }
+        if (until == null && count > 0) {
+            until = start.plus(count - 1, frequency.getUnit());
+        }
+        if (until == null) {
+            throw new ChatbotExceptions("the RRULE has neither UNTIL nor COUNT");
+        }
+        return new RecurringTask(description, start, frequency, until);
+    }
+
+    private static String toIcsFrequency(Frequency frequency) {
+        switch (frequency) {
+            case DAY:
+                return "DAILY";
+            case WEEK:
+                return "WEEKLY";
+            case MONTH:
+                return "MONTHLY";
+            default:
+                return "YEARLY";
+        }
+    }
+
+    private static Frequency fromIcsFrequency(String value) throws ChatbotExceptions {
+        switch (value.toUpperCase()) {
+            case "DAILY":
+                return Frequency.DAY;
+            case "WEEKLY":
+                return Frequency.WEEK;
+            case "MONTHLY":
+                return Frequency.MONTH;
+            case "YEARLY":
+                return Frequency.YEAR;
+            default:
+                throw new ChatbotExceptions("the RRULE frequency " + value + " is not supported");
+        }
+    }
+
+    /**
+     * Formats a date and time as an iCalendar DATE-TIME (yyyyMMdd'T'HHmmss).
+     */
+    private static String formatIcsDateTime(LocalDateTime dateTime) {
+        return String.format("%04d%02d%02dT%02d%02d%02d", dateTime.getYear(), dateTime.getMonthValue(),
+                dateTime.getDayOfMonth(), dateTime.getHour(), dateTime.getMinute(), dateTime.getSecond());
+    }
+
+    /**
+     * Parses an iCalendar DATE or DATE-TIME value.
+     * UTC times (ending in "Z") are converted to the local time zone. A plain
+     * DATE is placed at the start of the day, or at 23:59 when it marks an end, to
+     * match how Gojo treats date-only input.
+     */
+    private static LocalDateTime parseIcsDateTime(String value, boolean isEnd) throws ChatbotExceptions {
+        String text = value.trim();
+        boolean isUtc = text.endsWith("Z");
+        if (isUtc) {
+            text = text.substring(0, text.length() - 1);
+        }
+        try {
+            if (text.length() == 8) {
+                LocalDateTime date = LocalDateTime.of(Integer.parseInt(text.substring(0, 4)),
+                        Integer.parseInt(text.substring(4, 6)), Integer.parseInt(text.substring(6, 8)), 0, 0);
+                return isEnd ? date.withHour(23).withMinute(59) : date;
+            }
+            if (text.length() == 15 && text.charAt(8) == 'T') {
+                LocalDateTime dateTime = LocalDateTime.of(Integer.parseInt(text.substring(0, 4)),
+                        Integer.parseInt(text.substring(4, 6)), Integer.parseInt(text.substring(6, 8)),
+                        Integer.parseInt(text.substring(9, 11)), Integer.parseInt(text.substring(11, 13)),
+                        Integer.parseInt(text.substring(13, 15)));
+                if (isUtc) {
+                    return dateTime.atOffset(ZoneOffset.UTC).atZoneSameInstant(ZoneId.systemDefault())
+                            .toLocalDateTime();
+                }
+                return dateTime;
+            }
+        } catch (RuntimeException e) {
+            // Falls through to the error below
+        }
+        throw new ChatbotExceptions("'" + value + "' is not an iCalendar date");
+    }
+
+    /**
+     * Parses the DTEND of an event. A plain DATE end is exclusive, so an
+     * all-day event on one day ends on the next; it is moved back to 23:59 of
+     * the last day the event covers, unless that would be before the start.
+     */
+    private static LocalDateTime parseEventEnd(String value, LocalDateTime start) throws ChatbotExceptions {
+        LocalDateTime end = parseIcsDateTime(value, true);
+        if (value.trim().length() == 8 && end.minusDays(1).isAfter(start)) {
+            return end.minusDays(1);
+        }
+        return end;
+    }
+
+    private static String escapeText(String text) {
+        return text.replace("\\", "\\\\").replace(";", "\\;").replace(",", "\\,").replace("\n", "\\n");
+    }
+
+    private static String unescapeText(String text) {
+        StringBuilder result = new StringBuilder(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '\\' && i + 1 < text.length()) {
+                char escaped = text.charAt(++i);
+                result.append(escaped == 'n' || escaped == 'N' ? '\n' : escaped);
+            } else {
+                result.append(c);
+            }
+        }
+        return result.toString();
+    }
+
+    /**
+     * Writes a content line, folding it so that no physical line exceeds 75
+     * octets of UTF-8.
+     */
+    private static void writeFolded(String line, Writer out) throws IOException {
+        int octets = 0;
+        for (int i = 0; i < line.length(); ) {
+            int codePoint = line.codePointAt(i);
+            int width = codePoint < 0x80 ? 1 : codePoint < 0x800 ? 2 : codePoint < 0x10000 ? 3 : 4;
+            if (octets + width > MAX_LINE_OCTETS) {
+                out.write("\r\n ");
+                octets = 1;
+            }
+            out.write(Character.toChars(codePoint));
+            octets += width;
+            i += Character.charCount(codePoint);
+        }
+        out.write("\r\n");
+    }
+}
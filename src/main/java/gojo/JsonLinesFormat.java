@@ -0,0 +1,238 @@
+package gojo;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads and writes tasks as JSON Lines, one flat JSON object per line.
+ * <p>
+ * Each object has the keys "type", "done" and "description", plus "start",
+ * "end", "every" and "until" where the task type needs them. Only flat objects
+ * with string, boolean, number and null values are understood, which is all
+ * this format ever writes.
+ * </p>
+ */
+class JsonLinesFormat implements TaskFormat {
+
+    @Override
+    public void writeHeader(Writer out) {
+        // JSON Lines has no header
+    }
+
+    @Override
+    public void write(Task task, Writer out) throws IOException {
+        out.write("{\"type\":");
+        if (task instanceof Deadline) {
+            out.write("\"D\"");
+        } else if (task instanceof Event) {
+            out.write("\"E\"");
+        } else if (task instanceof RecurringTask) {
+            out.write("\"R\"");
+        } else {
+            out.write("\"T\"");
+        }
+        out.write(",\"done\":");
+        out.write(task.isDone ? "true" : "false");
+        out.write(",\"description\":");
+        writeString(task.description, out);
+        if (task instanceof Deadline) {
+            writeMember("start", DateParser.toFileString(((Deadline) task).by), out);
+        } else if (task instanceof Event) {
+            Event event = (Event) task;
+            writeMember("start", DateParser.toFileString(event.from), out);
+            writeMember("end", DateParser.toFileString(event.to), out);
+        } else if (task instanceof RecurringTask) {
+            RecurringTask recurring = (RecurringTask) task;
+            writeMember("start", DateParser.toFileString(recurring.start), out);
+            writeMember("every", recurring.frequency.name(), out);
+            writeMember("until", DateParser.toFileString(recurring.until), out);
+        }
+        out.write("}\n");
+    }
+
+    @Override
+    public void writeFooter(Writer out) {
+        // JSON Lines has no trailer
+    }
+
+    @Override
+    public void read(BufferedReader in, List<Task> batch) throws IOException, ChatbotExceptions {
+        Map<String, String> members = new HashMap<>();
+        long lineNumber = 0;
+        String line;
+        while ((line = in.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            try {
+                members.clear();
+                parseObject(line, members);
+                batch.add(TaskTransfer.createTask(members.get("type"), "true".equals(members.get("done")),
+                        members.get("description"), members.get("start"), members.get("end"),
+                        members.get("every"), members.get("until")));
+            } catch (ChatbotExceptions e) {
+                throw TaskTransfer.invalidRecord(lineNumber, e);
+            }
+        }
+    }
+
+    /**
+     * Parses a flat JSON object, storing every value in its text form.
+     * Null values are left out of the map.
+     */
+    private static void parseObject(String line, Map<String, String> members) throws ChatbotExceptions {
+        int[] position = {skipSpace(line, 0)};
+        expect(line, position, '{');
+        if (peek(line, position) == '}') {
+            return;
+        }
+        while (true) {
+            String key = parseString(line, position);
+            expect(line, position, ':');
+            String value = parseValue(line, position);
+            if (value != null) {
+                members.put(key, value);
+            }
+            char next = peek(line, position);
+            position[0]++;
+            if (next == '}') {
+                return;
+            } else if (next != ',') {
+                throw new ChatbotExceptions("malformed JSON object");
+            }
+        }
+    }
+
+    private static String parseValue(String line, int[] position) throws ChatbotExceptions {
+        char c = peek(line, position);
+        if (c == '"') {
+            return parseString(line, position);
+        }
+        int start = position[0];
+        while (position[0] < line.length() && ",} \t".indexOf(line.charAt(position[0])) < 0) {
+            position[0]++;
+        }
+        String literal = line.substring(start, position[0]);
+        if (literal.isEmpty() || literal.startsWith("{") || literal.startsWith("[")) {
+            throw new ChatbotExceptions("only flat JSON objects are supported");
+        }
+        return literal.equals("null") ? null : literal;
+    }
+
+    private static String parseString(String line, int[] position) throws ChatbotExceptions {
+        expect(line, position, '"');
+        StringBuilder value = new StringBuilder();
+        int i = position[0];
+        while (i < line.length()) {
+            char c = line.charAt(i++);
+            if (c == '"') {
+                position[0] = i;
+                return value.toString();
+            }
+            if (c != '\\') {
+                value.append(c);
+                continue;
+            }
+            if (i >= line.length()) {
+                break;
+            }
+            char escaped = line.charAt(i++);
+            switch (escaped) {
+                case 'n':
+                    value.append('\n');
+                    break;
+                case 't':
+                    value.append('\t');
+                    break;
+                case 'r':
+                    value.append('\r');
+                    break;
+                case 'b':
+                    value.append('\b');
+                    break;
+                case 'f':
+                    value.append('\f');
+                    break;
+                case 'u':
+                    if (i + 4 > line.length()) {
+                        throw new ChatbotExceptions("malformed unicode escape");
+                    }
+                    try {
+                        value.append((char) Integer.parseInt(line.substring(i, i + 4), 16));
+                    } catch (NumberFormatException e) {
+                        throw new ChatbotExceptions("malformed unicode escape");
+                    }
+                    i += 4;
+                    break;
+                default:
+                    value.append(escaped);
+            }
+        }
+        throw new ChatbotExceptions("unterminated JSON string");
+    }
+
+    private static char peek(String line, int[] position) throws ChatbotExceptions {
+        position[0] = skipSpace(line, position[0]);
+        if (position[0] >= line.length()) {
+            throw new ChatbotExceptions("truncated JSON object");
+        }
+        return line.charAt(position[0]);
+    }
+
+    private static void expect(String line, int[] position, char expected) throws ChatbotExceptions {
+        if (peek(line, position) != expected) {
+            throw new ChatbotExceptions("expected '" + expected + "' at column " + (position[0] + 1));
+        }
+        position[0]++;
+    }
+
+    private static int skipSpace(String line, int i) {
+        while (i < line.length() && Character.isWhitespace(line.charAt(i))) {
+            i++;
+        }
+        return i;
+    }
+
+    private static void writeMember(String key, String value, Writer out) throws IOException {
+        out.write(",\"");
+        out.write(key);
+        out.write("\":");
+        writeString(value, out);
+    }
+
+    private static void writeString(String value, Writer out) throws IOException {
+        out.write('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"':
+                    out.write("\\\"");
+                    break;
+                case '\\':
+                    out.write("\\\\");
+                    break;
+                case '\n':
+                    out.write("\\n");
+                    break;
+                case '\r':
+                    out.write("\\r");
+                    break;
+                case '\t':
+                    out.write("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        out.write(String.format("\\u%04x", (int) c));
+                    } else {
+                        out.write(c);
+                    }
+            }
+        }
+        out.write('"');
+    }
+}
@@ -0,0 +1,91 @@
+package gojo;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Reads lines of UTF-8 text from a stream through one large byte buffer.
+ * <p>
+ * Unlike {@link java.util.Scanner}, which matches every line against a regular
+ * expression and decodes through a small character buffer, this reader looks
+ * for '\n' bytes directly and decodes each line once it is complete. A line
+ * that lies within the buffer is decoded straight from it; a line that spans
+ * refills, however long, is gathered in a growing array first. A "\r\n" line
+ * ending is treated like "\n".
+ * </p>
+ */
+public class LineReader {
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final InputStream in;
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+    private int position;
+    private int limit;
+
+    // The start of a line that did not fit in the buffer.
+    private byte[] pending = new byte[0];
+    private int pendingLength;
+
+    /**
+     * Constructs a reader over the given stream.
+     *
+     * @param in The stream to read from.
+     */
+    public LineReader(InputStream in) {
+        this.in = in;
+    }
+
+    /**
+     * Reads the next line, without its line ending.
+     *
+     * @return The line, or null if the end of the stream has been reached.
+     * @throws IOException If the stream cannot be read.
+     */
+    public String readLine() throws IOException {
+        while (true) {
+            for (int i = position; i < limit; i++) {
+                if (buffer[i] == '\n') {
+                    String line = pendingLength == 0
+                            ? decode(buffer, position, i)
+                            : decode(append(buffer, position, i), 0, pendingLength);
+                    pendingLength = 0;
+                    position = i + 1;
+                    return line;
+                }
+            }
+            // No line ending in the buffer, so keep what there is and refill
+            append(buffer, position, limit);
+            position = 0;
+            limit = in.read(buffer);
+            if (limit <= 0) {
+                limit = 0;
+                if (pendingLength == 0) {
+                    return null;
+                }
+                // The last line has no line ending
+                String line = decode(pending, 0, pendingLength);
+                pendingLength = 0;
+                return line;
+            }
+        }
+    }
+
+    private byte[] append(byte[] bytes, int from, int to) {
+        int length = to - from;
+        if (pendingLength + length > pending.length) {
+            pending = Arrays.copyOf(pending, Math.max(2 * pending.length, pendingLength + length));
+        }
+        System.arraycopy(bytes, from, pending, pendingLength, length);
+        pendingLength += length;
+        return pending;
+    }
+
+    private static String decode(byte[] bytes, int from, int to) {
+        if (to > from && bytes[to - 1] == '\r') {
+            to--;
+        }
+        return new String(bytes, from, to - from, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,151 @@
+package gojo;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Shares repeated descriptions and dates between the tasks read from disk.
+ * <p>
+ * Task files often hold many copies of the same text, such as "weekly report"
+ * or "standup", and of the same date string. Without this, every record gets
+ * its own String for its description and its own LocalDateTime for each
+ * date. With it, the first copy of each is kept in a table and later records
+ * reuse it, so the duplicates can be collected right after loading. Both
+ * kinds of value are immutable, so sharing them is safe.
+ * </p>
+ * <p>
+ * Each table holds at most a fixed number of entries and drops the least
+ * recently used one when full, so a file of mostly unique text cannot make it
+ * grow without bound. The bytes saved are estimated from the size of the
+ * copies that were not kept.
+ * </p>
+ */
+public class LoadDeduplicator {
+    // Most distinct descriptions and dates kept in each table.
+    private static final int DEFAULT_CAPACITY = 4096;
+
+    // Heap taken by a String besides its characters: its header, fields and
+    // the header of its byte array.
+    private static final int STRING_OVERHEAD = 40;
+
+    // Heap taken by a LocalDateTime and the LocalDate and LocalTime inside it.
+    private static final int DATE_TIME_SIZE = 72;
+
+    private final Map<String, String> descriptions;
+    private final Map<String, LocalDateTime> dates;
+
+    private long sharedDescriptions;
+    private long sharedDates;
+    private long bytesSaved;
+
+    /**
+     * Constructs a deduplicator with tables of the default size.
+     */
+    public LoadDeduplicator() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Constructs a deduplicator whose tables hold at most the given number of
+     * entries each.
+     *
+     * @param capacity The most entries per table.
+     */
+    public LoadDeduplicator(int capacity) {
+        descriptions = boundedMap(capacity);
+        dates = boundedMap(capacity);
+    }
+
+    private static <V> Map<String, V> boundedMap(int capacity) {
+        return new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, V> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    /**
+     * Returns the shared copy of a description, keeping this one if it is the
+     * first.
+     *
+     * @param description The description just read.
+     * @return An equal description, shared with earlier tasks where possible.
+     */
+    public synchronized String description(String description) {
+        String shared = descriptions.putIfAbsent(description, description);
+        if (shared == null) {
+            return description;
+        }
+        sharedDescriptions++;
+        bytesSaved += STRING_OVERHEAD + stringBytes(description);
+        return shared;
+    }
+
+    /**
+     * Returns the shared date for a date string, keeping the given parsed one
+     * if the string is new.
+     *
+     * @param text   The date string just read.
+     * @param parsed The date the string was parsed to.
+     * @return An equal date, shared with earlier tasks where possible.
+     */
+    public synchronized LocalDateTime date(String text, LocalDateTime parsed) {
+        LocalDateTime shared = dates.putIfAbsent(text, parsed);
+        if (shared == null) {
+            return parsed;
+        }
+        sharedDates++;
+        bytesSaved += DATE_TIME_SIZE;
+        return shared;
+    }
+
+    /**
+     * Returns the shared date for a date string seen before, so that it need
+     * not be parsed again.
+     *
+     * @param text The date string.
+     * @return The shared date, or null if the string is not in the table.
+     */
+    public synchronized LocalDateTime knownDate(String text) {
+        LocalDateTime shared = dates.get(text);
+        if (shared != null) {
+            sharedDates++;
+            bytesSaved += DATE_TIME_SIZE;
+        }
+        return shared;
+    }
+
+    /**
+     * Describes how much sharing has saved, for the STATS command.
+     *
+     * @return The summary line.
+     */
+    public synchronized String getStats() {
+        return "Load deduplication: " + sharedDescriptions + " descriptions and " + sharedDates
+                + " dates shared, about " + (bytesSaved + 512) / 1024 + " KB saved.";
+    }
+
+    /**
+     * Returns the estimated number of bytes saved so far.
+     *
+     * @return The bytes saved.
+     */
+    public synchronized long getBytesSaved() {
+        return bytesSaved;
+    }
+
+    /**
+     * Returns the bytes a String keeps its characters in: one per character
+     * if they all fit in Latin-1, two otherwise.
+     */
+    private static int stringBytes(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) > 0xFF) {
+                return 2 * text.length();
+            }
+        }
+        return text.length();
+    }
+}
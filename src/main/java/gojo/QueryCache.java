@@ -0,0 +1,197 @@
+package gojo;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * Caches the rendered output of read-only queries such as FIND and SCHEDULE.
+ * <p>
+ * The cache holds a bounded number of results and evicts the least recently
+ * used one when full. Each result remembers the tasks it was built from and a
+ * test for whether a new task would belong in it, so a change to the task list
+ * only drops the results it actually affects.
+ * </p>
+ */
+public class QueryCache implements TaskListener {
+    private final int capacity;
+    private final LinkedHashMap<String, Entry> entries;
+
+    // For each task, the keys of the cached results that include it.
+    private final Map<Task, Set<String>> dependents = new IdentityHashMap<>();
+
+    private long hits;
+    private long misses;
+    private long invalidations;
+
+    /**
+     * Constructs an empty QueryCache.
+     *
+     * @param capacity The maximum number of results to keep.
+     */
+    public QueryCache(int capacity) {
+        this.capacity = capacity;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    /**
+     * Returns the cached output for a query, or null if it is not cached.
+     *
+     * @param key The normalized query text.
+     * @return The cached output lines, or null on a miss.
+     */
+    public List<String> get(String key) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            misses++;
+            return null;
+        }
+        hits++;
+        return entry.lines;
+    }
+
+    /**
+     * Returns the tasks a cached result was built from, in the order they were
+     * given to {@link #put}, or null if the query is not cached.
+     * Unlike {@link #get(String)}, this does not count as a hit or a miss.
+     *
+     * @param key The normalized query text.
+     * @return The tasks the cached output depends on, or null.
+     */
+    public List<Task> getTasks(String key) {
+        Entry entry = entries.get(key);
+        return entry == null ? null : Collections.unmodifiableList(entry.dependsOn);
+    }
+
+    /**
+     * Caches the output of a query.
+     *
+     * @param key        The normalized query text.
+     * @param lines      The output lines of the query.
+     * @param dependsOn  The tasks the output was built from.
+     * @param isAffected A test that returns true if adding the given task would
+     *                   change the output.
+     */
+    public void put(String key, List<String> lines, List<Task> dependsOn, Predicate<Task> isAffected) {
+        remove(key);
+        Entry entry = new Entry(Collections.unmodifiableList(new ArrayList<>(lines)), new ArrayList<>(dependsOn),
+                isAffected);
+        entries.put(key, entry);
+        for (Task task : entry.dependsOn) {
+            dependents.computeIfAbsent(task, t -> new HashSet<>()).add(key);
+        }
+        if (entries.size() > capacity) {
+            // The eldest entry in access order is the least recently used one
+            remove(entries.keySet().iterator().next());
+        }
+    }
+
+    /**
+     * Drops every cached result.
+     */
+    public void clear() {
+        entries.clear();
+        dependents.clear();
+    }
+
+    /**
+     * Returns a one-line summary of the cache's effectiveness.
+     *
+     * @return The hit, miss and size statistics of the cache.
+     */
+    public String getStats() {
+        long lookups = hits + misses;
+        long hitRate = lookups == 0 ? 0 : Math.round(100.0 * hits / lookups);
+        return "Query cache: " + hits + " hits, " + misses + " misses (" + hitRate + "% hit rate), "
+                + entries.size() + "/" + capacity + " entries, " + invalidations + " invalidations";
+    }
+
+    @Override
+    public void taskAdded(Task task) {
+        List<String> affected = new ArrayList<>();
+        for (Map.Entry<String, Entry> cached : entries.entrySet()) {
+            if (cached.getValue().isAffected.test(task)) {
+                affected.add(cached.getKey());
+            }
+        }
+        for (String key : affected) {
+            invalidate(key);
+        }
+    }
+
+    @Override
+    public void tasksAdded(List<Task> tasks) {
+        // Testing every cached result against a large batch costs more than
+        // simply recomputing the few results that are cached
+        if (tasks.size() > entries.size()) {
+            invalidations += entries.size();
+            clear();
+            return;
+        }
+        TaskListener.super.tasksAdded(tasks);
+    }
+
+    @Override
+    public void taskRemoved(Task task) {
+        invalidateDependentsOf(task);
+    }
+
+    @Override
+    public void taskChanged(Task task) {
+        invalidateDependentsOf(task);
+    }
+
+    private void invalidateDependentsOf(Task task) {
+        Set<String> keys = dependents.get(task);
+        if (keys == null) {
+            return;
+        }
+        for (String key : new ArrayList<>(keys)) {
+            invalidate(key);
+        }
+    }
+
+    private void invalidate(String key) {
+        if (remove(key)) {
+            invalidations++;
+        }
+    }
+
+    private boolean remove(String key) {
+        Entry entry = entries.remove(key);
+        if (entry == null) {
+            return false;
+        }
+        for (Task task : entry.dependsOn) {
+            Set<String> keys = dependents.get(task);
+            if (keys != null) {
+                keys.remove(key);
+                if (keys.isEmpty()) {
+                    dependents.remove(task);
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * A cached query result together with what it depends on.
+     */
+    private static class Entry {
+        private final List<String> lines;
+        private final List<Task> dependsOn;
+        private final Predicate<Task> isAffected;
+
+        private Entry(List<String> lines, List<Task> dependsOn, Predicate<Task> isAffected) {
+            this.lines = lines;
+            this.dependsOn = dependsOn;
+            this.isAffected = isAffected;
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package gojo;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Represents a task that repeats on a fixed rule in the Gojo application.
+ * <p>
+ * A recurring task is stored once as a rule (start, frequency and end date)
+ * rather than as one task per occurrence. Occurrences are only generated on
+ * demand for the window being queried, so storage and scan cost depend on
+ * the number of rules instead of the number of occurrences.
+ * </p>
+ */
+public class RecurringTask extends Task {
+
+    /** The date and time of the first occurrence. */
+    protected LocalDateTime start;
+
+    /** How often the task repeats. */
+    protected Frequency frequency;
+
+    /** The last moment at which an occurrence may take place. */
+    protected LocalDateTime until;
+
+    /**
+     * Constructs a new RecurringTask.
+     *
+     * @param description The description of the task.
+     * @param start       The first occurrence (e.g., "2/12/2019 0900").
+     * @param frequency   How often the task repeats (e.g., "week").
+     * @param until       The date after which the task no longer repeats.
+     * @throws ChatbotExceptions If a date or the frequency is invalid, or if the
+     *                           end date is before the first occurrence.
+     */
+    public RecurringTask(String description, String start, String frequency, String until)
+            throws ChatbotExceptions {
+        super(description);
+        this.start = DateParser.parseDateTime(start);
+        this.frequency = Frequency.parse(frequency);
+        this.until = DateParser.parseDateTime(until);
+        if (this.until.isBefore(this.start)) {
+            throw new ChatbotExceptions("OOPS!!! A recurring task cannot end before it starts.");
+        }
+    }
+
+    /**
+     * Constructs a new RecurringTask from an already parsed rule.
+     *
+     * @param description The description of the task.
+     * @param start       The first occurrence.
+     * @param frequency   How often the task repeats.
+     * @param until       The last moment at which the task may occur.
+     * @throws ChatbotExceptions If the end date is before the first occurrence.
+     */
+    public RecurringTask(String description, LocalDateTime start, Frequency frequency, LocalDateTime until)
+            throws ChatbotExceptions {
+        super(description);
+        this.start = start;
+        this.frequency = frequency;
+        this.until = until;
+        if (until.isBefore(start)) {
+            throw new ChatbotExceptions("OOPS!!! A recurring task cannot end before it starts.");
+        }
+    }
+
+    /**
+     * Returns the occurrences of this task that fall within the given dates.
+     * <p>
+     * Only occurrences inside the window are generated; the first candidate is
+     * found by jumping straight to the window start instead of stepping from
+     * the first occurrence.
+     * </p>
+     *
+     * @param from The first date of the window (inclusive).
+     * @param to   The last date of the window (inclusive).
+     * @return The occurrences within the window, in chronological order.
+     */
+    public List<LocalDateTime> occurrencesBetween(LocalDate from, LocalDate to) {
+        List<LocalDateTime> occurrences = new ArrayList<>();
+        LocalDateTime windowStart = from.atStartOfDay();
+        LocalDateTime windowEnd = to.atTime(LocalTime.MAX);
+        if (until.isBefore(windowEnd)) {
+            windowEnd = until;
+        }
+
+        long step = firstStepNear(windowStart);
+        LocalDateTime occurrence = occurrenceAt(step);
+        while (!occurrence.isAfter(windowEnd)) {
+            if (!occurrence.isBefore(windowStart)) {
+                occurrences.add(occurrence);
+            }
+            step++;
+            occurrence = occurrenceAt(step);
+        }
+        return occurrences;
+    }
+
+    /**
+     * Checks whether this task has an occurrence on the given date.
+     *
+     * @param date The date to check.
+     * @return True if the task occurs on the date.
+     */
+    public boolean occursOn(LocalDate date) {
+        return !occurrencesBetween(date, date).isEmpty();
+    }
+
+    /**
+     * Returns the first occurrence at or after the given moment.
+     *
+     * @param after The moment to search from.
+     * @return The next occurrence, or null if the task has stopped repeating.
+     */
+    public LocalDateTime nextOccurrence(LocalDateTime after) {
+        long step = firstStepNear(after);
+        LocalDateTime occurrence = occurrenceAt(step);
+        while (occurrence.isBefore(after)) {
+            step++;
+            occurrence = occurrenceAt(step);
+        }
+        return occurrence.isAfter(until) ? null : occurrence;
+    }
+
+    /**
+     * Returns a step count at or just before the first occurrence on or after the
+     * given moment.
+     * One step is subtracted because month and year arithmetic clamps to the end
+     * of shorter months, which can put the estimate one step too far.
+     */
+    private long firstStepNear(LocalDateTime moment) {
+        if (!moment.isAfter(start)) {
+            return 0;
+        }
+        return Math.max(0, frequency.getUnit().between(start, moment) - 1);
+    }
+
+    /**
+     * Returns the n-th occurrence, always computed from the first occurrence so
+     * that clamped month ends do not drift (e.g., Jan 31, Feb 28, Mar 31).
+     */
+    private LocalDateTime occurrenceAt(long step) {
+        return start.plus(step, frequency.getUnit());
+    }
+
+    /**
+     * Returns a string representation of the recurring task.
+     * The format is "[R][Status] Description (every unit from: start until: end)".
+     *
+     * @return The string representation of the recurring task.
+     */
+    @Override
+    protected String renderDisplay() {
+        return "[R]" + super.renderDisplay() + " (every " + frequency.name().toLowerCase() + " from: "
+                + DateParser.formatDateTime(start) + " until: " + DateParser.formatDateTime(until) + ")";
+    }
+
+    /**
+     * Formats the recurring task data for file storage.
+     * The format is "R | Status | Description | Start | Frequency | Until".
+     *
+     * @return A formatted string suitable for saving to a file.
+     */
+    @Override
+    protected String renderFileFormat() {
+        return "R" + super.renderFileFormat() + " | " + DateParser.toFileString(start) + " | " + frequency.name()
+                + " | " + DateParser.toFileString(until);
+    }
+}
@@ -0,0 +1,321 @@
+package gojo;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Sends reminders shortly before deadlines and events are due.
+ * <p>
+ * For every pending task with a due date the scheduler queues one reminder
+ * per lead time, e.g. a day and an hour before. The reminders are kept in a
+ * single ordered queue and one timer is armed for the earliest of them, so
+ * nothing is polled while waiting. As a listener of the task list, the
+ * scheduler adds, drops and re-arms reminders when tasks are added, deleted
+ * or marked, instead of rescanning the list.
+ * </p>
+ * <p>
+ * A recurring task is reminded of its next occurrence only; once that has
+ * passed, the reminders for the following occurrence are queued.
+ * </p>
+ */
+public class ReminderScheduler implements TaskListener, AutoCloseable {
+    private final TreeSet<Reminder> queue = new TreeSet<>(
+            Comparator.comparing((Reminder r) -> r.fireAt).thenComparingLong(r -> r.sequence));
+
+    // Every pending task with a due date and its queued reminders, which may
+    // be none if all of them lie in the past.
+    private final Map<Task, List<Reminder>> byTask = new IdentityHashMap<>();
+
+    private final Consumer<String> sink;
+    private final ScheduledExecutorService timer;
+    private List<Duration> leadTimes;
+    private ScheduledFuture<?> armed;
+    private long nextSequence;
+
+    /**
+     * Constructs a scheduler that passes each reminder to the given sink.
+     *
+     * @param leadTimes How long before a task is due to remind of it.
+     * @param sink      Receives the text of each reminder.
+     */
+    public ReminderScheduler(List<Duration> leadTimes, Consumer<String> sink) {
+        this.leadTimes = new ArrayList<>(leadTimes);
+        this.sink = sink;
+        this.timer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "gojo-reminders");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Returns a sink that prints reminders to the console, or appends them to
+     * a hook file if a path is given, for another program to pick up.
+     *
+     * @param hookFile The file to append reminders to, or null for the console.
+     * @return The sink.
+     */
+    public static Consumer<String> sinkFor(String hookFile) {
+        if (hookFile == null || hookFile.isBlank()) {
+            return message -> System.out.println(System.lineSeparator() + message);
+        }
+        Path path = Paths.get(hookFile);
+        return message -> {
+            try (BufferedWriter out = Files.newBufferedWriter(path, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                out.write(LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS) + " " + message);
+                out.newLine();
+            } catch (IOException e) {
+                System.out.println("Could not write reminder to " + path + ": " + e.getMessage());
+            }
+        };
+    }
+
+    /**
+     * Parses lead times such as "1d 2h 30m" or "1w,15m".
+     * Each lead time is a number followed by m (minutes), h (hours), d (days)
+     * or w (weeks); 0 reminds at the moment the task is due.
+     *
+     * @param text The lead times separated by spaces or commas.
+     * @return The lead times, longest first.
+     * @throws ChatbotExceptions If a lead time is not understood.
+     */
+    public static List<Duration> parseLeadTimes(String text) throws ChatbotExceptions {
+        List<Duration> result = new ArrayList<>();
+        for (String part : text.trim().split("[\\s,]+")) {
+            if (part.isEmpty()) {
+                continue;
+            }
+            if (part.equals("0")) {
+                result.add(Duration.ZERO);
+                continue;
+            }
+            char unit = Character.toLowerCase(part.charAt(part.length() - 1));
+            long amount;
+            try {
+                amount = Long.parseLong(part.substring(0, part.length() - 1));
+            } catch (NumberFormatException e) {
+                amount = -1;
+            }
+            if (amount < 0 || "mhdw".indexOf(unit) < 0) {
+                throw new ChatbotExceptions("OOPS!!! '" + part + "' is not a lead time. Use e.g. 30m, 2h, 1d or 1w.");
+            }
+            result.add(unit == 'm' ? Duration.ofMinutes(amount)
+                    : unit == 'h' ? Duration.ofHours(amount)
+                    : unit == 'd' ? Duration.ofDays(amount)
+                    : Duration.ofDays(7 * amount));
+        }
+        result.sort(Comparator.reverseOrder());
+        return result;
+    }
+
+    /**
+     * Replaces the lead times and re-queues the reminders of every task.
+     *
+     * @param newLeadTimes How long before a task is due to remind of it.
+     */
+    public synchronized void setLeadTimes(List<Duration> newLeadTimes) {
+        leadTimes = new ArrayList<>(newLeadTimes);
+        for (Task task : new ArrayList<>(byTask.keySet())) {
+            unschedule(task);
+            schedule(task, LocalDateTime.now());
+        }
+        arm();
+    }
+
+    /**
+     * Returns the lead times in use.
+     *
+     * @return The lead times, longest first.
+     */
+    public synchronized List<Duration> getLeadTimes() {
+        return new ArrayList<>(leadTimes);
+    }
+
+    /**
+     * Returns when the next reminder will be sent.
+     *
+     * @return The time of the earliest queued reminder, or null if none is queued.
+     */
+    public synchronized LocalDateTime getNextReminder() {
+        return queue.isEmpty() ? null : queue.first().fireAt;
+    }
+
+    @Override
+    public synchronized void taskAdded(Task task) {
+        schedule(task, LocalDateTime.now());
+        arm();
+    }
+
+    @Override
+    public synchronized void tasksAdded(List<Task> tasks) {
+        LocalDateTime now = LocalDateTime.now();
+        for (Task task : tasks) {
+            schedule(task, now);
+        }
+        arm();
+    }
+
+    @Override
+    public synchronized void taskRemoved(Task task) {
+        unschedule(task);
+        arm();
+    }
+
+    @Override
+    public synchronized void taskChanged(Task task) {
+        unschedule(task);
+        schedule(task, LocalDateTime.now());
+        arm();
+    }
+
+    /**
+     * Stops the timer. Queued reminders are not sent.
+     */
+    @Override
+    public void close() {
+        timer.shutdownNow();
+    }
+
+    /**
+     * Sends every reminder that is due at the given moment and queues the
+     * next occurrence of recurring tasks whose reminders have all been sent.
+     *
+     * @param now The current moment.
+     * @return The number of reminders sent.
+     */
+    synchronized int fire(LocalDateTime now) {
+        int sent = 0;
+        while (!queue.isEmpty() && !queue.first().fireAt.isAfter(now)) {
+            Reminder reminder = queue.pollFirst();
+            List<Reminder> remaining = byTask.get(reminder.task);
+            remaining.remove(reminder);
+            sink.accept(describe(reminder));
+            sent++;
+            if (remaining.isEmpty() && reminder.task instanceof RecurringTask) {
+                schedule(reminder.task, reminder.due.plusMinutes(1));
+            }
+        }
+        return sent;
+    }
+
+    /**
+     * Queues the reminders of a task that still lie after the given moment.
+     * For a recurring task whose next occurrence is too close for any lead
+     * time, the reminders of the first later occurrence are queued instead.
+     */
+    private void schedule(Task task, LocalDateTime after) {
+        if (task.isDone) {
+            return;
+        }
+        boolean isRecurring = task instanceof RecurringTask;
+        LocalDateTime due = isRecurring ? ((RecurringTask) task).nextOccurrence(after) : DueIndex.dueDate(task);
+        if (due == null) {
+            return;
+        }
+        List<Reminder> reminders = new ArrayList<>();
+        byTask.put(task, reminders);
+        while (due != null && !leadTimes.isEmpty()) {
+            for (Duration lead : leadTimes) {
+                LocalDateTime fireAt = due.minus(lead);
+                if (!fireAt.isBefore(after)) {
+                    reminders.add(new Reminder(fireAt, nextSequence++, task, due, lead));
+                }
+            }
+            if (!reminders.isEmpty()) {
+                queue.addAll(reminders);
+                return;
+            }
+            due = isRecurring ? ((RecurringTask) task).nextOccurrence(due.plusMinutes(1)) : null;
+        }
+    }
+
+    private void unschedule(Task task) {
+        List<Reminder> reminders = byTask.remove(task);
+        if (reminders != null) {
+            queue.removeAll(reminders);
+        }
+    }
+
+    /**
+     * Points the timer at the earliest queued reminder.
+     */
+    private void arm() {
+        if (armed != null) {
+            armed.cancel(false);
+            armed = null;
+        }
+        if (queue.isEmpty() || timer.isShutdown()) {
+            return;
+        }
+        long delay = Math.max(0, Duration.between(LocalDateTime.now(), queue.first().fireAt).toMillis());
+        armed = timer.schedule(() -> {
+            synchronized (this) {
+                fire(LocalDateTime.now());
+                arm();
+            }
+        }, delay, TimeUnit.MILLISECONDS);
+    }
+
+    private static String describe(Reminder reminder) {
+        String when = reminder.lead.isZero() ? "now" : "in " + describeLead(reminder.lead);
+        return "Reminder: " + reminder.task + " is due " + when + " (" + DateParser.formatDateTime(reminder.due) + ").";
+    }
+
+    /**
+     * Describes a lead time in its largest whole unit, e.g. "2 hours".
+     *
+     * @param lead The lead time.
+     * @return The description.
+     */
+    static String describeLead(Duration lead) {
+        long minutes = lead.toMinutes();
+        if (minutes % (7 * 24 * 60) == 0) {
+            return plural(minutes / (7 * 24 * 60), "week");
+        } else if (minutes % (24 * 60) == 0) {
+            return plural(minutes / (24 * 60), "day");
+        } else if (minutes % 60 == 0) {
+            return plural(minutes / 60, "hour");
+        }
+        return plural(minutes, "minute");
+    }
+
+    private static String plural(long amount, String unit) {
+        return amount + " " + unit + (amount == 1 ? "" : "s");
+    }
+
+    private static class Reminder {
+        private final LocalDateTime fireAt;
+        private final long sequence;
+        private final Task task;
+        private final LocalDateTime due;
+        private final Duration lead;
+
+        private Reminder(LocalDateTime fireAt, long sequence, Task task, LocalDateTime due, Duration lead) {
+            this.fireAt = fireAt;
+            this.sequence = sequence;
+            this.task = task;
+            this.due = due;
+            this.lead = lead;
+        }
+    }
+}
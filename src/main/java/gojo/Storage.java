@@ -1,11 +1,32 @@
 package gojo;
 
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
 import java.io.File;
-import java.io.FileWriter;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.EnumMap;
 import java.util.List;
-import java.util.Scanner;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
 
 /**
  * Handles loading tasks from the file and saving tasks in the file.
@@ -14,24 +35,60 @@ import java.util.Scanner;
  * disk.
  * It ensures that task data is persistent across application restarts.
  * </p>
+ * <p>
+ * Every record is written as an 8-digit CRC-32 checksum, a space and the
+ * task's file format, e.g. "1a2b3c4d T | 0 | read book". Lines written by
+ * older versions without a checksum are still accepted. Records that fail to
+ * load are moved to a quarantine file next to the data file instead of being
+ * dropped on the next save.
+ * </p>
+ * <p>
+ * A file whose name ends in ".gz" is read and written as a GZIP stream. Done
+ * tasks can also be moved out of the data file into a compressed archive
+ * next to it, which keeps the file that is rewritten on every save small.
+ * </p>
  */
 public class Storage {
+    private static final int CHECKSUM_LENGTH = 8;
+    private static final String QUARANTINE_SUFFIX = ".quarantine";
+    private static final String ARCHIVE_SUFFIX = ".archive.gz";
+    private static final String AUDIT_SUFFIX = ".audit";
+    private static final int BUFFER_SIZE = 1 << 16;
+
     private final String filePath;
 
+    // Shares repeated descriptions and dates between loaded tasks; null if off.
+    private final LoadDeduplicator deduplicator;
+
     /**
      * Constructs a new Storage instance.
      *
      * @param filePath The file path where tasks will be stored.
      */
     public Storage(String filePath) {
+        this(filePath, null);
+    }
+
+    /**
+     * Constructs a Storage instance that shares repeated descriptions and
+     * dates between the tasks it loads.
+     *
+     * @param filePath     The file path where tasks will be stored.
+     * @param deduplicator The tables to share values through, or null to load
+     *                     every record separately.
+     */
+    public Storage(String filePath, LoadDeduplicator deduplicator) {
         this.filePath = filePath;
+        this.deduplicator = deduplicator;
     }
 
     /**
      * Loads tasks from the data file.
      * <p>
      * If the file does not exist, it creates the directory structure if needed
-     * and returns an empty list.
+     * and returns an empty list. Every record that can be read is kept; damaged
+     * records are appended to the quarantine file together with the reason they
+     * were rejected.
      * </p>
      *
      * @return The list of tasks loaded from the file.
@@ -39,82 +96,449 @@ public class Storage {
     public List<Task> load() {
         List<Task> tasks = new ArrayList<>();
         File file = new File(filePath);
-        try {
-            // Check if file exists; if not, create parent directories and return empty list
-            if (!file.exists()) {
-                File directory = file.getParentFile();
-                if (directory != null && !directory.exists()) {
-                    directory.mkdirs();
-                }
-                return tasks; // Return empty list if file doesn't exist
+        // Check if file exists; if not, create parent directories and return empty list
+        if (!file.exists()) {
+            File directory = file.getParentFile();
+            if (directory != null && !directory.exists()) {
+                directory.mkdirs();
             }
+            return tasks; // Return empty list if file doesn't exist
+        }
 
-            Scanner fileScanner = new Scanner(file);
-            while (fileScanner.hasNextLine()) {
-                String line = fileScanner.nextLine();
+        Map<CorruptRecordException.Kind, Integer> damaged = new EnumMap<>(CorruptRecordException.Kind.class);
+        List<String> quarantined = new ArrayList<>();
+        try (BufferedReader reader = openReader(file.toPath())) {
+            String line;
+            long lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isEmpty()) {
+                    continue;
+                }
                 try {
-                    // Split the line by " | " to extract task details
-                    // Format: Type | IsDone | Description [| Date/Time]
-                    String[] parts = line.split(" \\| ");
-                    String type = parts[0];
-                    boolean isDone = parts[1].equals("1");
-                    String description = parts[2];
-
-                    Task task = null;
-                    // Determine task type and create appropriate object
-                    switch (type) {
-                        case "T":
-                            task = new Todo(description);
-                            break;
-                        case "D":
-                            // Deadline format includes additional "by" date
-                            String by = parts[3];
-                            task = new Deadline(description, by);
-                            break;
-                        case "E":
-                            // Event format includes additional "from" and "to" times
-                            String from = parts[3];
-                            String to = parts[4];
-                            task = new Event(description, from, to);
-                            break;
-                    }
-
-                    if (task != null) {
-                        if (isDone) {
-                            task.markAsDone();
-                        }
-                        tasks.add(task);
-                    }
-                } catch (Exception e) {
-                    System.out.println("Skipping corrupted line: " + line);
+                    tasks.add(decodeRecord(line, deduplicator));
+                } catch (CorruptRecordException e) {
+                    damaged.merge(e.getKind(), 1, Integer::sum);
+                    quarantined.add("# line " + lineNumber + ", " + describe(e.getKind()) + ": " + e.getMessage());
+                    quarantined.add(line);
                 }
             }
-            fileScanner.close();
         } catch (IOException e) {
             System.out.println("Error loading data from file: " + e.getMessage());
         }
+
+        if (!quarantined.isEmpty()) {
+            quarantine(quarantined, damaged, tasks);
+        }
         return tasks;
     }
 
     /**
      * Saves the list of tasks to the data file.
      * <p>
-     * Overwrites the existing file with the current state of the task list.
+     * Overwrites the existing file with the current state of the task list. The
+     * new contents are written to a temporary file first and then moved into
+     * place, so a crash mid-save leaves the previous file intact.
      * </p>
      *
      * @param tasks The list of tasks to save.
      * @throws ChatbotExceptions If there are errors writing to the file.
      */
     public void save(List<Task> tasks) throws ChatbotExceptions {
+        Path target = Paths.get(filePath);
+        Path temporary = Paths.get(filePath + ".tmp");
         try {
-            FileWriter writer = new FileWriter(filePath);
-            for (Task task : tasks) {
-                // Convert each task to its file storage format string
-                writer.write(task.toFileFormat() + System.lineSeparator());
+            Path directory = target.toAbsolutePath().getParent();
+            if (directory != null) {
+                Files.createDirectories(directory);
+            }
+            try (BufferedWriter writer = openWriter(temporary, isCompressed(filePath), false)) {
+                for (Task task : tasks) {
+                    // Convert each task to its checksummed file storage format string
+                    writer.write(encodeRecord(task));
+                    writer.write(System.lineSeparator());
+                }
+            }
+            try {
+                Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING,
+                        StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING);
             }
-            writer.close();
         } catch (IOException e) {
             throw new ChatbotExceptions("Error saving data: " + e.getMessage());
         }
     }
+
+    /**
+     * Checks every record in the data file without loading it.
+     * <p>
+     * The file is split across threads and each line is decoded independently,
+     * so large files are scanned in parallel. Nothing is modified.
+     * </p>
+     *
+     * @return The lines of the verification report.
+     * @throws ChatbotExceptions If the file cannot be read.
+     */
+    public List<String> verify() throws ChatbotExceptions {
+        Path path = Paths.get(filePath);
+        if (!Files.exists(path)) {
+            throw new ChatbotExceptions("There is no data file at " + filePath + " to verify yet.");
+        }
+        AtomicLong legacy = new AtomicLong();
+        Map<String, Long> counts;
+        try (Stream<String> lines = openLines(path)) {
+            counts = lines.parallel()
+                    .filter(line -> !line.isEmpty())
+                    .map(line -> {
+                        if (!hasChecksum(line)) {
+                            legacy.incrementAndGet();
+                        }
+                        try {
+                            decodeRecord(line);
+                            return "ok";
+                        } catch (CorruptRecordException e) {
+                            return describe(e.getKind());
+                        }
+                    })
+                    .collect(Collectors.groupingByConcurrent(result -> result, Collectors.counting()));
+        } catch (IOException | UncheckedIOException e) {
+            throw new ChatbotExceptions("Error verifying data: " + e.getMessage());
+        }
+
+        long total = counts.values().stream().mapToLong(Long::longValue).sum();
+        long ok = counts.getOrDefault("ok", 0L);
+        List<String> report = new ArrayList<>();
+        report.add("Verified " + total + " records in " + filePath + ": " + ok + " OK.");
+        for (CorruptRecordException.Kind kind : CorruptRecordException.Kind.values()) {
+            Long count = counts.get(describe(kind));
+            if (count != null) {
+                report.add("  " + count + " " + describe(kind));
+            }
+        }
+        if (legacy.get() > 0) {
+            report.add("  " + legacy.get() + " records have no checksum yet; they will get one on the next save.");
+        }
+        if (ok < total) {
+            report.add("Damaged records are moved to " + filePath + QUARANTINE_SUFFIX + " on the next start.");
+        }
+        return report;
+    }
+
+    /**
+     * Appends tasks to the compressed archive next to the data file.
+     * <p>
+     * Each call adds a new GZIP member to the end of the archive, so existing
+     * archived tasks are never read or rewritten. Readers see the members as
+     * one continuous stream.
+     * </p>
+     *
+     * @param tasks The tasks to archive.
+     * @throws ChatbotExceptions If the archive cannot be written.
+     */
+    public void archive(List<Task> tasks) throws ChatbotExceptions {
+        Path archive = Paths.get(getArchivePath());
+        try {
+            Path directory = archive.toAbsolutePath().getParent();
+            if (directory != null) {
+                Files.createDirectories(directory);
+            }
+            try (BufferedWriter writer = openWriter(archive, true, true)) {
+                for (Task task : tasks) {
+                    writer.write(encodeRecord(task));
+                    writer.write(System.lineSeparator());
+                }
+            }
+        } catch (IOException e) {
+            throw new ChatbotExceptions("Error archiving tasks: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Reads every task back from the compressed archive, one record at a time.
+     *
+     * @return The archived tasks, oldest archive first.
+     * @throws ChatbotExceptions If the archive cannot be read or is damaged.
+     */
+    public List<Task> loadArchive() throws ChatbotExceptions {
+        List<Task> archived = new ArrayList<>();
+        Path archive = Paths.get(getArchivePath());
+        if (!Files.exists(archive)) {
+            return archived;
+        }
+        try (BufferedReader reader = openReader(archive)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!line.isEmpty()) {
+                    archived.add(decodeRecord(line));
+                }
+            }
+        } catch (IOException e) {
+            throw new ChatbotExceptions("Error reading archive: " + e.getMessage());
+        }
+        return archived;
+    }
+
+    /**
+     * Returns the path of the compressed archive that belongs to the data file.
+     *
+     * @return The archive path.
+     */
+    public String getArchivePath() {
+        return filePath + ARCHIVE_SUFFIX;
+    }
+
+    /**
+     * Returns the path that the segments of the audit log of the data file are
+     * named after.
+     *
+     * @return The audit log path.
+     */
+    public String getAuditPath() {
+        return filePath + AUDIT_SUFFIX;
+    }
+
+    private static boolean isCompressed(String path) {
+        return path.endsWith(".gz");
+    }
+
+    /**
+     * Opens a UTF-8 reader over a file, inflating it on the fly if it is GZIP
+     * compressed.
+     */
+    private static BufferedReader openReader(Path path) throws IOException {
+        InputStream in = Files.newInputStream(path);
+        if (isCompressed(path.toString())) {
+            in = new GZIPInputStream(in, BUFFER_SIZE);
+        }
+        return new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8), BUFFER_SIZE);
+    }
+
+    /**
+     * Opens a stream of the lines of a file.
+     * Plain files are memory-mapped and split evenly across threads by a parallel
+     * stream; compressed files can only be inflated sequentially, so for them
+     * only the per-line work runs in parallel.
+     */
+    private static Stream<String> openLines(Path path) throws IOException {
+        if (!isCompressed(path.toString())) {
+            return Files.lines(path, StandardCharsets.UTF_8);
+        }
+        BufferedReader reader = openReader(path);
+        return reader.lines().onClose(() -> {
+            try {
+                reader.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    /**
+     * Opens a UTF-8 writer over a file, deflating on the fly if requested.
+     */
+    private static BufferedWriter openWriter(Path path, boolean isCompressed, boolean isAppend) throws IOException {
+        OutputStream out = isAppend
+                ? Files.newOutputStream(path, StandardOpenOption.CREATE, StandardOpenOption.APPEND)
+                : Files.newOutputStream(path);
+        if (isCompressed) {
+            out = new GZIPOutputStream(out, BUFFER_SIZE);
+        }
+        return new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+    }
+
+    /**
+     * Encodes a task as a checksummed line of the data file.
+     *
+     * @param task The task to encode.
+     * @return The checksum, a space and the task's file format.
+     */
+    static String encodeRecord(Task task) {
+        String payload = task.toFileFormat();
+        return String.format("%08x", checksum(payload)) + " " + payload;
+    }
+
+    /**
+     * Decodes one line of the data file back into a task.
+     *
+     * @param line The line to decode, with or without a checksum.
+     * @return The decoded task.
+     * @throws CorruptRecordException If the line is damaged.
+     */
+    static Task decodeRecord(String line) throws CorruptRecordException {
+        return decodeRecord(line, null);
+    }
+
+    /**
+     * Decodes one line of the data file back into a task, sharing its
+     * description and dates with earlier tasks where possible.
+     *
+     * @param line         The line to decode, with or without a checksum.
+     * @param deduplicator The tables to share values through, or null.
+     * @return The decoded task.
+     * @throws CorruptRecordException If the line is damaged.
+     */
+    static Task decodeRecord(String line, LoadDeduplicator deduplicator) throws CorruptRecordException {
+        if (!hasChecksum(line)) {
+            // Written by a version of Gojo that did not checksum records
+            return parseTask(line, deduplicator);
+        }
+        String payload = line.substring(CHECKSUM_LENGTH + 1);
+        long expected = Long.parseLong(line.substring(0, CHECKSUM_LENGTH), 16);
+        if (checksum(payload) == expected) {
+            return parseTask(payload, deduplicator);
+        }
+        // A record cut short by a crash is reported as truncated rather than as a
+        // plain checksum failure
+        try {
+            parseTask(payload, null);
+        } catch (CorruptRecordException e) {
+            if (e.getKind() == CorruptRecordException.Kind.TRUNCATED) {
+                throw e;
+            }
+        }
+        throw new CorruptRecordException(CorruptRecordException.Kind.CHECKSUM_MISMATCH,
+                "the record does not match its checksum");
+    }
+
+    /**
+     * Parses the file format of a task.
+     * Format: Type | IsDone | Description [| Date/Time...]
+     */
+    private static Task parseTask(String payload, LoadDeduplicator deduplicator) throws CorruptRecordException {
+        // Split the line by " | " to extract task details
+        String[] parts = payload.split(" \\| ");
+        if (parts.length < 3) {
+            throw new CorruptRecordException(CorruptRecordException.Kind.TRUNCATED,
+                    "expected at least 3 fields but found " + parts.length);
+        }
+        String type = parts[0];
+        int expectedFields;
+        switch (type) {
+            case "T":
+                expectedFields = 3;
+                break;
+            case "D":
+                expectedFields = 4;
+                break;
+            case "E":
+                expectedFields = 5;
+                break;
+            case "R":
+                expectedFields = 6;
+                break;
+            default:
+                throw new CorruptRecordException(CorruptRecordException.Kind.UNKNOWN_TYPE,
+                        "unknown task type '" + type + "'");
+        }
+        if (parts.length < expectedFields) {
+            throw new CorruptRecordException(CorruptRecordException.Kind.TRUNCATED,
+                    "expected " + expectedFields + " fields but found " + parts.length);
+        }
+        if (!parts[1].equals("0") && !parts[1].equals("1")) {
+            throw new CorruptRecordException(CorruptRecordException.Kind.MALFORMED,
+                    "status must be 0 or 1 but was '" + parts[1] + "'");
+        }
+        boolean isDone = parts[1].equals("1");
+        String description = deduplicator == null ? parts[2] : deduplicator.description(parts[2]);
+
+        Task task;
+        // Determine task type and create appropriate object
+        switch (type) {
+            case "D":
+                // Deadline format includes additional "by" date
+                task = new Deadline(description, parseDate(parts[3], deduplicator));
+                break;
+            case "E":
+                // Event format includes additional "from" and "to" times
+                task = new Event(description, parseDate(parts[3], deduplicator), parseDate(parts[4], deduplicator));
+                break;
+            case "R":
+                // Recurring format stores the rule instead of each occurrence
+                task = parseRecurringTask(description, parts, deduplicator);
+                break;
+            default:
+                task = new Todo(description);
+                break;
+        }
+        if (isDone) {
+            task.markAsDone();
+        }
+        return task;
+    }
+
+    private static Task parseRecurringTask(String description, String[] parts, LoadDeduplicator deduplicator)
+            throws CorruptRecordException {
+        LocalDateTime start = parseDate(parts[3], deduplicator);
+        LocalDateTime until = parseDate(parts[5], deduplicator);
+        try {
+            return new RecurringTask(description, start, Frequency.parse(parts[4]), until);
+        } catch (ChatbotExceptions e) {
+            throw new CorruptRecordException(CorruptRecordException.Kind.MALFORMED, e.getMessage());
+        }
+    }
+
+    private static LocalDateTime parseDate(String text, LoadDeduplicator deduplicator)
+            throws CorruptRecordException {
+        if (deduplicator != null) {
+            LocalDateTime known = deduplicator.knownDate(text);
+            if (known != null) {
+                return known;
+            }
+        }
+        try {
+            LocalDateTime parsed = DateParser.parseFileString(text);
+            return deduplicator == null ? parsed : deduplicator.date(text, parsed);
+        } catch (ChatbotExceptions e) {
+            throw new CorruptRecordException(CorruptRecordException.Kind.BAD_DATE, "cannot parse date '" + text + "'");
+        }
+    }
+
+    private static boolean hasChecksum(String line) {
+        if (line.length() <= CHECKSUM_LENGTH || line.charAt(CHECKSUM_LENGTH) != ' ') {
+            return false;
+        }
+        for (int i = 0; i < CHECKSUM_LENGTH; i++) {
+            if (Character.digit(line.charAt(i), 16) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static long checksum(String payload) {
+        CRC32 crc = new CRC32();
+        crc.update(payload.getBytes(StandardCharsets.UTF_8));
+        return crc.getValue();
+    }
+
+    private static String describe(CorruptRecordException.Kind kind) {
+        return kind.name().toLowerCase().replace('_', ' ');
+    }
+
+    /**
+     * Appends damaged records to the quarantine file, tells the user where they
+     * went and rewrites the data file with only the salvaged tasks.
+     */
+    private void quarantine(List<String> lines, Map<CorruptRecordException.Kind, Integer> damaged,
+            List<Task> salvaged) {
+        String quarantinePath = filePath + QUARANTINE_SUFFIX;
+        String summary = damaged.entrySet().stream()
+                .map(entry -> entry.getValue() + " " + describe(entry.getKey()))
+                .collect(Collectors.joining(", "));
+        try {
+            Files.write(Paths.get(quarantinePath), lines, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            System.out.println("Recovered " + salvaged.size() + " tasks. Moved damaged lines (" + summary + ") to "
+                    + quarantinePath + ".");
+            // Rewrite the data file without the damaged lines so they are not
+            // quarantined a second time on the next start
+            save(salvaged);
+        } catch (ChatbotExceptions e) {
+            System.out.println(e.getMessage());
+        } catch (IOException e) {
+            System.out.println("Skipping damaged lines (" + summary + "); could not write " + quarantinePath
+                    + ": " + e.getMessage());
+        }
+    }
 }
@@ -0,0 +1,201 @@
+package gojo;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Answers filters such as "#infra #urgent --pending" with bitwise ANDs.
+ * <p>
+ * Every task gets a slot number, handed out in the order tasks are added, and
+ * every tag and key=value field has a bitmap with one bit per slot. A filter
+ * ANDs the bitmaps of its terms instead of checking each task's text. Because
+ * tasks are only ever appended to the list, slot order is list order, so the
+ * list number of each match can be counted off the bitmap of live slots.
+ * Deleted slots are left empty and squeezed out once they make up half of all
+ * slots.
+ * </p>
+ */
+public class TagIndex implements TaskListener {
+    // Slots are only compacted beyond this size, to avoid churn on small lists.
+    private static final int MIN_SLOTS_TO_COMPACT = 64;
+
+    private List<Task> slots = new ArrayList<>();
+    private Map<Task, Integer> slotOf = new IdentityHashMap<>();
+    private BitSet live = new BitSet();
+    private BitSet pending = new BitSet();
+    private Map<String, BitSet> byTerm = new HashMap<>();
+
+    /**
+     * Constructs an index over the given tasks.
+     *
+     * @param tasks The tasks to index initially, in list order.
+     */
+    public TagIndex(List<Task> tasks) {
+        tasksAdded(tasks);
+    }
+
+    /**
+     * Returns the term a tag is indexed under, e.g. "#infra".
+     *
+     * @param tag The tag, with or without its leading '#'.
+     * @return The index term.
+     */
+    public static String tagTerm(String tag) {
+        return "#" + (tag.startsWith("#") ? tag.substring(1) : tag).toLowerCase();
+    }
+
+    /**
+     * Returns the term a field is indexed under, e.g. "owner=alice".
+     *
+     * @param key   The key of the field.
+     * @param value The value of the field.
+     * @return The index term.
+     */
+    public static String fieldTerm(String key, String value) {
+        return key.toLowerCase() + "=" + value;
+    }
+
+    /**
+     * Returns the tasks that have every given term, in list order.
+     *
+     * @param terms The tag and field terms that must all be present.
+     * @param done  True for only done tasks, false for only pending ones, or
+     *              null for both.
+     * @return The matching tasks with their zero-based positions in the list.
+     */
+    public List<Match> query(List<String> terms, Boolean done) {
+        BitSet result = (BitSet) live.clone();
+        for (String term : terms) {
+            BitSet bits = byTerm.get(term);
+            if (bits == null) {
+                return new ArrayList<>();
+            }
+            result.and(bits);
+        }
+        if (done != null) {
+            if (done) {
+                result.andNot(pending);
+            } else {
+                result.and(pending);
+            }
+        }
+
+        // Count live slots between matches to turn slots back into list positions
+        List<Match> matches = new ArrayList<>();
+        int position = 0;
+        int countedUpTo = 0;
+        for (int slot = result.nextSetBit(0); slot >= 0; slot = result.nextSetBit(slot + 1)) {
+            position += live.get(countedUpTo, slot).cardinality();
+            countedUpTo = slot;
+            matches.add(new Match(position, slots.get(slot)));
+        }
+        return matches;
+    }
+
+    @Override
+    public void taskAdded(Task task) {
+        int slot = slots.size();
+        slots.add(task);
+        slotOf.put(task, slot);
+        live.set(slot);
+        if (!task.isDone) {
+            pending.set(slot);
+        }
+        for (String term : termsOf(task)) {
+            byTerm.computeIfAbsent(term, t -> new BitSet()).set(slot);
+        }
+    }
+
+    @Override
+    public void taskRemoved(Task task) {
+        Integer slot = slotOf.remove(task);
+        if (slot == null) {
+            return;
+        }
+        slots.set(slot, null);
+        live.clear(slot);
+        pending.clear(slot);
+        for (String term : termsOf(task)) {
+            BitSet bits = byTerm.get(term);
+            bits.clear(slot);
+            if (bits.isEmpty()) {
+                byTerm.remove(term);
+            }
+        }
+        if (slots.size() > MIN_SLOTS_TO_COMPACT && slotOf.size() < slots.size() / 2) {
+            compact();
+        }
+    }
+
+    @Override
+    public void taskChanged(Task task) {
+        Integer slot = slotOf.get(task);
+        if (slot != null) {
+            pending.set(slot, !task.isDone);
+        }
+    }
+
+    /**
+     * Renumbers the remaining tasks into consecutive slots.
+     */
+    private void compact() {
+        List<Task> remaining = new ArrayList<>();
+        for (Task task : slots) {
+            if (task != null) {
+                remaining.add(task);
+            }
+        }
+        slots = new ArrayList<>();
+        slotOf = new IdentityHashMap<>();
+        live = new BitSet();
+        pending = new BitSet();
+        byTerm = new HashMap<>();
+        tasksAdded(remaining);
+    }
+
+    private static List<String> termsOf(Task task) {
+        List<String> terms = new ArrayList<>();
+        for (String tag : task.getTags()) {
+            terms.add(tagTerm(tag));
+        }
+        for (Map.Entry<String, String> field : task.getFields().entrySet()) {
+            terms.add(fieldTerm(field.getKey(), field.getValue()));
+        }
+        return terms;
+    }
+
+    /**
+     * A task that passed a filter, with its position in the list.
+     */
+    public static class Match {
+        private final int index;
+        private final Task task;
+
+        private Match(int index, Task task) {
+            this.index = index;
+            this.task = task;
+        }
+
+        /**
+         * Returns the zero-based position of the task in the list.
+         *
+         * @return The position.
+         */
+        public int getIndex() {
+            return index;
+        }
+
+        /**
+         * Returns the matching task.
+         *
+         * @return The task.
+         */
+        public Task getTask() {
+            return task;
+        }
+    }
+}
@@ -1,18 +1,51 @@
 package gojo;
 
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
 /**
  * Represents a generic task in the Gojo application.
  * A task has a description and a completion status.
  * It serves as the base class for more specific task types like Todo, Deadline,
  * and Event.
+ * <p>
+ * Words of the description such as "#infra" are the task's tags, and words such
+ * as "owner=alice" are its fields. They are kept in the description, so they are
+ * saved, imported and exported along with it.
+ * </p>
+ * <p>
+ * A task renders its display and file strings once and reuses them, since
+ * listing and saving ask for them far more often than tasks change. Each
+ * cached string is kept together with its status character in one immutable
+ * {@link Rendering}, so a reminder thread reading a task while the engine
+ * marks it always sees a matching pair.
+ * </p>
  */
 public abstract class Task {
+    private static final Pattern TAG = Pattern.compile("#[\\p{L}\\p{N}_-]+");
+    private static final Pattern FIELD = Pattern.compile("\\p{L}[\\p{L}\\p{N}_-]*=\\S+");
+
     /** The description of the task. */
     protected String description;
 
     /** The completion status of the task (true if done, false otherwise). */
     protected boolean isDone;
 
+    /** The tags of the task, lower-cased and without the leading '#'. */
+    private final Set<String> tags;
+
+    /** The key=value fields of the task, with lower-cased keys. */
+    private final Map<String, String> fields;
+
+    // The rendered strings, kept until the description or a date changes.
+    // Marking only swaps the status character the next time one is read.
+    private volatile Rendering display;
+    private volatile Rendering fileFormat;
+
     /**
      * Constructs a new Task with the specified description.
      * The task is initially marked as not done.
@@ -22,6 +55,42 @@ public abstract class Task {
     public Task(String description) {
         this.description = description;
         this.isDone = false;
+        // Most descriptions have neither tags nor fields, so skip the split for them
+        if (description.indexOf('#') < 0 && description.indexOf('=') < 0) {
+            this.tags = Collections.emptySet();
+            this.fields = Collections.emptyMap();
+            return;
+        }
+        Set<String> parsedTags = new LinkedHashSet<>();
+        Map<String, String> parsedFields = new LinkedHashMap<>();
+        for (String word : description.split("\\s+")) {
+            if (TAG.matcher(word).matches()) {
+                parsedTags.add(word.substring(1).toLowerCase());
+            } else if (FIELD.matcher(word).matches()) {
+                int equals = word.indexOf('=');
+                parsedFields.put(word.substring(0, equals).toLowerCase(), word.substring(equals + 1));
+            }
+        }
+        this.tags = Collections.unmodifiableSet(parsedTags);
+        this.fields = Collections.unmodifiableMap(parsedFields);
+    }
+
+    /**
+     * Returns the tags written in the description, e.g. "infra" for "#infra".
+     *
+     * @return The lower-cased tags, in the order they appear.
+     */
+    public Set<String> getTags() {
+        return tags;
+    }
+
+    /**
+     * Returns the key=value fields written in the description.
+     *
+     * @return The fields by lower-cased key, in the order they appear.
+     */
+    public Map<String, String> getFields() {
+        return fields;
     }
 
     /**
@@ -38,34 +107,119 @@ public abstract class Task {
      * Marks the task as completed.
      */
     public void markAsDone() {
-        isDone = true;
+        setDone(true);
     }
 
     /**
      * Marks the task as not completed.
      */
     public void markAsNotDone() {
-        isDone = false;
+        setDone(false);
     }
 
     /**
-     * Returns a string representation of the task.
-     * The format is "[Status] Description".
+     * Sets the completion status. The cached strings are brought up to date
+     * when they are next read.
+     */
+    private void setDone(boolean done) {
+        isDone = done;
+    }
+
+    /**
+     * Drops the cached strings, so that they are rendered afresh on next use.
+     * Must be called after changing the description or a date of the task.
+     */
+    protected void invalidateRendering() {
+        display = null;
+        fileFormat = null;
+    }
+
+    /**
+     * Returns a string representation of the task, as rendered by
+     * {@link #renderDisplay()} and cached until the task changes.
      *
      * @return The string representation of the task.
      */
     @Override
     public String toString() {
+        char status = isDone ? 'X' : ' ';
+        Rendering rendering = display;
+        if (rendering == null) {
+            String text = renderDisplay();
+            // The first "[ ]" or "[X]" follows the type, which is a letter
+            int notDoneAt = text.indexOf("[ ]");
+            int doneAt = text.indexOf("[X]");
+            int bracketAt = notDoneAt < 0 || (doneAt >= 0 && doneAt < notDoneAt) ? doneAt : notDoneAt;
+            rendering = new Rendering(text, bracketAt + 1);
+            display = rendering;
+        }
+        if (rendering.getStatus() != status) {
+            rendering = rendering.withStatus(status);
+            display = rendering;
+        }
+        return rendering.text;
+    }
+
+    /**
+     * Returns the task data for file storage, as rendered by
+     * {@link #renderFileFormat()} and cached until the task changes.
+     *
+     * @return A formatted string suitable for saving to a file.
+     */
+    public String toFileFormat() {
+        char status = isDone ? '1' : '0';
+        Rendering rendering = fileFormat;
+        if (rendering == null) {
+            String text = renderFileFormat();
+            rendering = new Rendering(text, text.indexOf(" | ") + 3);
+            fileFormat = rendering;
+        }
+        if (rendering.getStatus() != status) {
+            rendering = rendering.withStatus(status);
+            fileFormat = rendering;
+        }
+        return rendering.text;
+    }
+
+    /**
+     * Renders the string representation of the task.
+     * The format is "[Status] Description".
+     *
+     * @return The string representation of the task.
+     */
+    protected String renderDisplay() {
         return "[" + this.getStatusIcon() + "]" + " " + description;
     }
 
     /**
-     * Formats the task data for file storage.
+     * Renders the task data for file storage.
      * The format is " | Status(0/1) | Description".
      *
      * @return A formatted string suitable for saving to a file.
      */
-    public String toFileFormat() {
+    protected String renderFileFormat() {
         return " | " + (isDone ? "1" : "0") + " | " + description;
     }
-}
\ No newline at end of file
+
+    /**
+     * A rendered string and where its status character is. The status is read
+     * from the string itself, so the two can never disagree.
+     */
+    private static final class Rendering {
+        private final String text;
+        private final int statusAt;
+
+        private Rendering(String text, int statusAt) {
+            this.text = text;
+            this.statusAt = statusAt;
+        }
+
+        private char getStatus() {
+            return text.charAt(statusAt);
+        }
+
+        private Rendering withStatus(char status) {
+            return new Rendering(text.substring(0, statusAt) + status + text.substring(statusAt + 1), statusAt);
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package gojo;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+
+/**
+ * Represents an external file format that tasks can be exported to and
+ * imported from.
+ * <p>
+ * Implementations work one record at a time so that neither side needs the
+ * whole file in memory.
+ * </p>
+ */
+interface TaskFormat {
+
+    /**
+     * Writes anything that must appear before the first task.
+     *
+     * @param out The writer to write to.
+     * @throws IOException If writing fails.
+     */
+    void writeHeader(Writer out) throws IOException;
+
+    /**
+     * Writes a single task.
+     *
+     * @param task The task to write.
+     * @param out  The writer to write to.
+     * @throws IOException If writing fails.
+     */
+    void write(Task task, Writer out) throws IOException;
+
+    /**
+     * Writes anything that must appear after the last task.
+     *
+     * @param out The writer to write to.
+     * @throws IOException If writing fails.
+     */
+    void writeFooter(Writer out) throws IOException;
+
+    /**
+     * Reads every task from the input, appending each one to the batch as soon as
+     * its record is complete.
+     *
+     * @param in    The reader to read from.
+     * @param batch The list that receives the tasks in file order.
+     * @throws IOException       If reading fails.
+     * @throws ChatbotExceptions If a record is not a valid task.
+     */
+    void read(BufferedReader in, List<Task> batch) throws IOException, ChatbotExceptions;
+}
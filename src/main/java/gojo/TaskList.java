@@ -1,7 +1,11 @@
 package gojo;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * Encapsulates the list of tasks and supports operations to add, delete, and
@@ -14,6 +18,9 @@ import java.util.List;
 public class TaskList {
     private List<Task> tasks;
 
+    // Caches and indexes that are kept in sync with this list.
+    private final List<TaskListener> listeners = new ArrayList<>();
+
     /**
      * Constructs an empty TaskList.
      */
@@ -37,6 +44,25 @@ public class TaskList {
      */
     public void add(Task task) {
         tasks.add(task);
+        for (TaskListener listener : listeners) {
+            listener.taskAdded(task);
+        }
+    }
+
+    /**
+     * Adds a batch of tasks to the end of the list in a single operation.
+     * <p>
+     * Used by bulk imports so the backing list grows once instead of once per
+     * task.
+     * </p>
+     *
+     * @param newTasks The tasks to add, in order.
+     */
+    public void addAll(List<Task> newTasks) {
+        tasks.addAll(newTasks);
+        for (TaskListener listener : listeners) {
+            listener.tasksAdded(newTasks);
+        }
     }
 
     /**
@@ -51,7 +77,103 @@ public class TaskList {
         if (index < 0 || index >= tasks.size()) {
             throw new ChatbotExceptions("OOPS!!! The task number is out of bounds.");
         }
-        return tasks.remove(index);
+        Task removed = tasks.remove(index);
+        for (TaskListener listener : listeners) {
+            listener.taskRemoved(removed);
+        }
+        return removed;
+    }
+
+    /**
+     * Removes the given tasks from the list in a single pass.
+     *
+     * @param removedTasks The tasks to remove; they are matched by identity.
+     */
+    public void deleteAll(List<Task> removedTasks) {
+        Set<Task> toRemove = Collections.newSetFromMap(new IdentityHashMap<>());
+        toRemove.addAll(removedTasks);
+        tasks.removeIf(toRemove::contains);
+        for (TaskListener listener : listeners) {
+            for (Task task : removedTasks) {
+                listener.taskRemoved(task);
+            }
+        }
+    }
+
+    /**
+     * Puts back an earlier state of the list, such as when a transaction is
+     * rolled back.
+     * <p>
+     * Listeners are told of each task removed while it is still in its current
+     * state; only then are the done flags put back and the listeners told of
+     * the whole restored list, so that they rebuild their state from scratch.
+     * No listener ever sees a task whose state changed without being told.
+     * </p>
+     *
+     * @param newTasks  The tasks the list should hold, in order.
+     * @param doneFlags Whether each of those tasks is done.
+     */
+    public void restore(List<Task> newTasks, Map<Task, Boolean> doneFlags) {
+        List<Task> oldTasks = tasks;
+        for (TaskListener listener : listeners) {
+            for (Task task : oldTasks) {
+                listener.taskRemoved(task);
+            }
+        }
+        for (Map.Entry<Task, Boolean> entry : doneFlags.entrySet()) {
+            if (entry.getValue()) {
+                entry.getKey().markAsDone();
+            } else {
+                entry.getKey().markAsNotDone();
+            }
+        }
+        tasks = new ArrayList<>(newTasks);
+        for (TaskListener listener : listeners) {
+            listener.tasksAdded(tasks);
+        }
+    }
+
+    /**
+     * Marks the task at the specified index as done.
+     *
+     * @param index The zero-based index of the task to mark.
+     * @return The marked task.
+     * @throws ChatbotExceptions If the index is out of bounds.
+     */
+    public Task markAsDone(int index) throws ChatbotExceptions {
+        Task task = get(index);
+        task.markAsDone();
+        notifyChanged(task);
+        return task;
+    }
+
+    /**
+     * Marks the task at the specified index as not done.
+     *
+     * @param index The zero-based index of the task to unmark.
+     * @return The unmarked task.
+     * @throws ChatbotExceptions If the index is out of bounds.
+     */
+    public Task markAsNotDone(int index) throws ChatbotExceptions {
+        Task task = get(index);
+        task.markAsNotDone();
+        notifyChanged(task);
+        return task;
+    }
+
+    /**
+     * Registers a listener to be told about every later change to this list.
+     *
+     * @param listener The listener to register.
+     */
+    public void addListener(TaskListener listener) {
+        listeners.add(listener);
+    }
+
+    private void notifyChanged(Task task) {
+        for (TaskListener listener : listeners) {
+            listener.taskChanged(task);
+        }
     }
 
     /**
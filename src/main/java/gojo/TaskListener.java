@@ -0,0 +1,52 @@
+package gojo;
+
+import java.util.List;
+
+/**
+ * Receives notifications whenever the contents of a TaskList change.
+ * <p>
+ * Caches and indexes that are derived from the task list register as a
+ * listener so they can update themselves incrementally instead of rescanning
+ * the whole list. Every method has an empty default so a listener only needs
+ * to override the changes it cares about.
+ * </p>
+ */
+public interface TaskListener {
+
+    /**
+     * Called after a task has been added to the list.
+     *
+     * @param task The task that was added.
+     */
+    default void taskAdded(Task task) {
+    }
+
+    /**
+     * Called after a batch of tasks has been added to the list in one go.
+     * By default this is treated as a series of single additions; listeners
+     * that can rebuild more cheaply may override it.
+     *
+     * @param tasks The tasks that were added, in order.
+     */
+    default void tasksAdded(List<Task> tasks) {
+        for (Task task : tasks) {
+            taskAdded(task);
+        }
+    }
+
+    /**
+     * Called after a task has been removed from the list.
+     *
+     * @param task The task that was removed.
+     */
+    default void taskRemoved(Task task) {
+    }
+
+    /**
+     * Called after a task in the list has been modified, e.g. marked as done.
+     *
+     * @param task The task that was modified.
+     */
+    default void taskChanged(Task task) {
+    }
+}
@@ -0,0 +1,131 @@
+package gojo;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps the position of every task in a list that only grows at the end, so
+ * that a listener can tell where a removed or changed task was without
+ * scanning the list.
+ * <p>
+ * Each task is given the next free slot when it is added, and a Fenwick tree
+ * counts the slots still in use. The position of a task is the number of used
+ * slots up to its own, so looking it up and removing it both take O(log n).
+ * When every slot has been used, the tasks are renumbered into twice as many
+ * slots as there are tasks, dropping those of removed tasks.
+ * </p>
+ */
+class TaskPositions {
+    private static final int MIN_CAPACITY = 16;
+
+    private final Map<Task, Integer> slots = new IdentityHashMap<>();
+
+    // The task in each slot, or null once it has been removed.
+    private List<Task> slotTasks = new ArrayList<>();
+
+    // Fenwick tree over the slots, 1-based; a used slot counts as one.
+    private int[] tree = new int[MIN_CAPACITY + 1];
+
+    /**
+     * Appends a task after all the others.
+     *
+     * @param task The task that was added.
+     */
+    void add(Task task) {
+        if (slotTasks.size() == tree.length - 1) {
+            renumber(slots.size() + 1);
+        }
+        int slot = slotTasks.size();
+        slotTasks.add(task);
+        slots.put(task, slot);
+        update(slot, 1);
+    }
+
+    /**
+     * Returns the position of a task.
+     *
+     * @param task The task to look up.
+     * @return Its zero-based position, or -1 if it is not in the list.
+     */
+    int indexOf(Task task) {
+        Integer slot = slots.get(task);
+        return slot == null ? -1 : countUpTo(slot) - 1;
+    }
+
+    /**
+     * Removes a task, moving every later task one position forward.
+     *
+     * @param task The task that was removed.
+     * @return Its zero-based position before removal, or -1 if it was not in the list.
+     */
+    int remove(Task task) {
+        Integer slot = slots.remove(task);
+        if (slot == null) {
+            return -1;
+        }
+        int index = countUpTo(slot) - 1;
+        update(slot, -1);
+        slotTasks.set(slot, null);
+        return index;
+    }
+
+    /**
+     * Returns the tasks in order.
+     *
+     * @return A new list of the tasks.
+     */
+    List<Task> getTasks() {
+        List<Task> tasks = new ArrayList<>(slots.size());
+        for (Task task : slotTasks) {
+            if (task != null) {
+                tasks.add(task);
+            }
+        }
+        return tasks;
+    }
+
+    /**
+     * Gives the tasks fresh slots from zero, with room for at least the given
+     * number, dropping the slots of removed tasks.
+     */
+    private void renumber(int needed) {
+        List<Task> tasks = getTasks();
+        int capacity = Math.max(MIN_CAPACITY, 2 * needed);
+        slotTasks = new ArrayList<>(capacity);
+        tree = new int[capacity + 1];
+        slots.clear();
+        for (Task task : tasks) {
+            slots.put(task, slotTasks.size());
+            slotTasks.add(task);
+        }
+        // Builds the tree in O(n) by passing each count up to its parent once
+        for (int i = 1; i < tree.length; i++) {
+            if (i <= tasks.size()) {
+                tree[i]++;
+            }
+            int parent = i + (i & -i);
+            if (parent < tree.length) {
+                tree[parent] += tree[i];
+            }
+        }
+    }
+
+    private void update(int slot, int delta) {
+        for (int i = slot + 1; i < tree.length; i += i & -i) {
+            tree[i] += delta;
+        }
+    }
+
+    /**
+     * Returns the number of used slots up to and including the given one.
+     */
+    private int countUpTo(int slot) {
+        int count = 0;
+        for (int i = slot + 1; i > 0; i -= i & -i) {
+            count += tree[i];
+        }
+        return count;
+    }
+}
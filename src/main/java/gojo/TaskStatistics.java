@@ -0,0 +1,246 @@
+package gojo;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.WeakHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps running totals of a task list for the SUMMARY command.
+ * <p>
+ * As a listener of the task list, the counters are updated in O(log d) on
+ * every add, delete and mark, where d is the number of distinct due days, so
+ * a summary never scans the tasks. Tasks are counted by type and by status,
+ * and the pending deadlines and events are counted per due day in a histogram
+ * ordered by date. A deadline is due on its deadline and an event on its
+ * start. Recurring tasks have no single due day, so they are only counted by
+ * type and status.
+ * </p>
+ * <p>
+ * The number of overdue tasks, those due on an earlier day, is kept as a
+ * counter too. When the date changes, the days that have just passed are
+ * added to it; a background tick does this shortly after midnight, and a
+ * summary catches up first in case the tick has not run yet.
+ * </p>
+ */
+public class TaskStatistics implements TaskListener {
+    // The kinds of task, in the order they are shown.
+    private static final String[] TYPE_NAMES = {"todos", "deadlines", "events", "recurring tasks"};
+
+    // Every statistics object in memory, rolled forward together at midnight.
+    private static final Set<TaskStatistics> LIVE = Collections.newSetFromMap(new WeakHashMap<>());
+    private static ScheduledExecutorService midnightTick;
+
+    private final int[] totalByType = new int[TYPE_NAMES.length];
+    private final int[] doneByType = new int[TYPE_NAMES.length];
+
+    // The number of pending deadlines and events due on each day.
+    private final TreeMap<LocalDate, Integer> dueByDay = new TreeMap<>();
+
+    // Whether each counted task was done when it was last counted, since
+    // marking a task that is already done is reported as a change too.
+    private final Map<Task, Boolean> countedDone = new IdentityHashMap<>();
+
+    // The day the overdue count was last worked out for.
+    private LocalDate today;
+    private int overdue;
+
+    /**
+     * Constructs statistics over the given tasks and keeps them rolled forward
+     * at midnight.
+     *
+     * @param tasks The tasks to count initially.
+     */
+    public TaskStatistics(List<Task> tasks) {
+        this(tasks, LocalDate.now());
+        startMidnightTick(this);
+    }
+
+    /**
+     * Constructs statistics over the given tasks as of the given day, without
+     * the midnight tick.
+     *
+     * @param tasks The tasks to count initially.
+     * @param today The current day.
+     */
+    TaskStatistics(List<Task> tasks, LocalDate today) {
+        this.today = today;
+        tasksAdded(tasks);
+    }
+
+    @Override
+    public synchronized void taskAdded(Task task) {
+        count(task, task.isDone, 1);
+        countedDone.put(task, task.isDone);
+    }
+
+    @Override
+    public synchronized void taskRemoved(Task task) {
+        Boolean wasDone = countedDone.remove(task);
+        if (wasDone != null) {
+            count(task, wasDone, -1);
+        }
+    }
+
+    @Override
+    public synchronized void taskChanged(Task task) {
+        Boolean wasDone = countedDone.get(task);
+        if (wasDone != null && wasDone != task.isDone) {
+            count(task, wasDone, -1);
+            count(task, task.isDone, 1);
+            countedDone.put(task, task.isDone);
+        }
+    }
+
+    /**
+     * Adds a task to the counters, or takes it away again.
+     *
+     * @param task   The task.
+     * @param isDone Whether the task is counted as done.
+     * @param delta  1 to add the task, -1 to take it away.
+     */
+    private void count(Task task, boolean isDone, int delta) {
+        int type = typeOf(task);
+        totalByType[type] += delta;
+        if (isDone) {
+            doneByType[type] += delta;
+            return;
+        }
+        LocalDate due = dueDayOf(task);
+        if (due == null) {
+            return;
+        }
+        dueByDay.merge(due, delta, Integer::sum);
+        if (dueByDay.get(due) == 0) {
+            dueByDay.remove(due);
+        }
+        if (due.isBefore(today)) {
+            overdue += delta;
+        }
+    }
+
+    /**
+     * Moves the current day forward, counting the pending tasks due on the
+     * days in between as overdue. Takes O(log d) plus the days passed.
+     *
+     * @param day The new current day; an earlier day is ignored.
+     */
+    synchronized void rollForward(LocalDate day) {
+        if (!day.isAfter(today)) {
+            return;
+        }
+        for (int count : dueByDay.subMap(today, true, day, false).values()) {
+            overdue += count;
+        }
+        today = day;
+    }
+
+    /**
+     * Describes the list in a few lines.
+     *
+     * @param day The current day.
+     * @return The lines of the summary.
+     */
+    public synchronized List<String> summarize(LocalDate day) {
+        rollForward(day);
+        int total = 0;
+        int done = 0;
+        StringBuilder byType = new StringBuilder();
+        for (int type = 0; type < TYPE_NAMES.length; type++) {
+            total += totalByType[type];
+            done += doneByType[type];
+            byType.append(type == 0 ? "  " : ", ")
+                    .append(totalByType[type]).append(" ").append(TYPE_NAMES[type])
+                    .append(" (").append(totalByType[type] - doneByType[type]).append(" pending)");
+        }
+        return List.of("Here is a summary of your list:",
+                "  " + total + " tasks: " + (total - done) + " pending, " + done + " done",
+                byType.toString(),
+                "  " + overdue + " overdue, " + dueOn(day, day.plusDays(1)) + " due today, "
+                        + dueOn(day, day.plusDays(7)) + " due in the next 7 days");
+    }
+
+    /**
+     * Returns the number of pending deadlines and events due from the first
+     * day up to but excluding the second.
+     */
+    private int dueOn(LocalDate from, LocalDate to) {
+        int count = 0;
+        for (int value : dueByDay.subMap(from, true, to, false).values()) {
+            count += value;
+        }
+        return count;
+    }
+
+    /**
+     * Returns the number of pending tasks due on an earlier day.
+     *
+     * @param day The current day.
+     * @return The overdue count.
+     */
+    public synchronized int getOverdue(LocalDate day) {
+        rollForward(day);
+        return overdue;
+    }
+
+    private static int typeOf(Task task) {
+        if (task instanceof Deadline) {
+            return 1;
+        } else if (task instanceof Event) {
+            return 2;
+        } else if (task instanceof RecurringTask) {
+            return 3;
+        }
+        return 0;
+    }
+
+    private static LocalDate dueDayOf(Task task) {
+        if (task instanceof Deadline) {
+            return ((Deadline) task).by.toLocalDate();
+        } else if (task instanceof Event) {
+            return ((Event) task).from.toLocalDate();
+        }
+        return null;
+    }
+
+    /**
+     * Adds statistics to those rolled forward by the shared midnight tick,
+     * starting the tick the first time. The statistics are only weakly held,
+     * so those of evicted workspaces can still be collected.
+     */
+    private static synchronized void startMidnightTick(TaskStatistics statistics) {
+        LIVE.add(statistics);
+        if (midnightTick == null) {
+            midnightTick = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "gojo-midnight");
+                thread.setDaemon(true);
+                return thread;
+            });
+            scheduleTick();
+        }
+    }
+
+    private static void scheduleTick() {
+        LocalDateTime now = LocalDateTime.now();
+        // Shortly after midnight, so that LocalDate.now() has moved on
+        LocalDateTime next = now.toLocalDate().plusDays(1).atTime(0, 0, 1);
+        midnightTick.schedule(TaskStatistics::tick, Duration.between(now, next).toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    private static synchronized void tick() {
+        LocalDate day = LocalDate.now();
+        for (TaskStatistics statistics : LIVE) {
+            statistics.rollForward(day);
+        }
+        scheduleTick();
+    }
+}
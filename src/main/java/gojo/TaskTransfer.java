@@ -0,0 +1,188 @@
+package gojo;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Exports tasks to and imports tasks from CSV, JSON Lines and iCalendar files.
+ * <p>
+ * The format is chosen from the file extension. Both directions stream
+ * through a buffered reader or writer, so a file is never read into memory
+ * as a whole.
+ * </p>
+ */
+public class TaskTransfer {
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    /**
+     * Private constructor to prevent instantiation of utility class.
+     */
+    private TaskTransfer() {
+    }
+
+    /**
+     * Picks the file format for the given path based on its extension.
+     *
+     * @param path The path of the file to export to or import from.
+     * @return The matching format.
+     * @throws ChatbotExceptions If the extension is not supported.
+     */
+    static TaskFormat formatFor(String path) throws ChatbotExceptions {
+        String lowerPath = path.toLowerCase();
+        if (lowerPath.endsWith(".csv")) {
+            return new CsvFormat();
+        } else if (lowerPath.endsWith(".jsonl") || lowerPath.endsWith(".ndjson")) {
+            return new JsonLinesFormat();
+        } else if (lowerPath.endsWith(".ics")) {
+            return new ICalendarFormat();
+        }
+        throw new ChatbotExceptions("OOPS!!! I can only import and export .csv, .jsonl and .ics files.");
+    }
+
+    /**
+     * Writes the given tasks to a file, one record per task.
+     *
+     * @param tasks The tasks to export.
+     * @param path  The file to write; the format is chosen from its extension.
+     * @return The number of tasks written.
+     * @throws ChatbotExceptions If the format is unsupported or the file cannot be
+     *                           written.
+     */
+    public static int exportTasks(List<Task> tasks, String path) throws ChatbotExceptions {
+        TaskFormat format = formatFor(path);
+        File file = new File(path);
+        File directory = file.getAbsoluteFile().getParentFile();
+        if (directory != null && !directory.exists()) {
+            directory.mkdirs();
+        }
+        try (BufferedWriter out = new BufferedWriter(
+                new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8), BUFFER_SIZE)) {
+            format.writeHeader(out);
+            for (Task task : tasks) {
+                format.write(task, out);
+            }
+            format.writeFooter(out);
+        } catch (IOException e) {
+            throw new ChatbotExceptions("Error exporting tasks: " + e.getMessage());
+        }
+        return tasks.size();
+    }
+
+    /**
+     * Reads every task from a file.
+     * <p>
+     * Records are parsed one at a time as the file streams in. If any record is
+     * invalid, nothing is returned so that the caller never applies half an
+     * import.
+     * </p>
+     *
+     * @param path The file to read; the format is chosen from its extension.
+     * @return The imported tasks, in file order.
+     * @throws ChatbotExceptions If the format is unsupported, the file cannot be
+     *                           read, or a record is invalid.
+     */
+    public static List<Task> importTasks(String path) throws ChatbotExceptions {
+        TaskFormat format = formatFor(path);
+        File file = new File(path);
+        if (!file.exists()) {
+            throw new ChatbotExceptions("OOPS!!! I can't find the file " + path + ".");
+        }
+        List<Task> batch = new ArrayList<>();
+        try (BufferedReader in = new BufferedReader(
+                new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8), BUFFER_SIZE)) {
+            format.read(in, batch);
+        } catch (IOException e) {
+            throw new ChatbotExceptions("Error importing tasks: " + e.getMessage());
+        }
+        return batch;
+    }
+
+    /**
+     * Creates a task from the text fields shared by the CSV and JSON Lines
+     * formats.
+     *
+     * @param type        The task type letter (T, D, E or R).
+     * @param isDone      Whether the task is done.
+     * @param description The description of the task.
+     * @param start       The deadline, event start or first occurrence, if any.
+     * @param end         The event end, if any.
+     * @param every       The repeat frequency of a recurring task, if any.
+     * @param until       The end date of a recurring task, if any.
+     * @return The created task.
+     * @throws ChatbotExceptions If a required field is missing or invalid.
+     */
+    static Task createTask(String type, boolean isDone, String description, String start, String end,
+            String every, String until) throws ChatbotExceptions {
+        description = cleanDescription(description);
+        Task task;
+        switch (type == null ? "" : type.trim().toUpperCase()) {
+            case "T":
+                task = new Todo(description);
+                break;
+            case "D":
+                task = new Deadline(description, require(start, "start"));
+                break;
+            case "E":
+                task = new Event(description, require(start, "start"), require(end, "end"));
+                break;
+            case "R":
+                task = new RecurringTask(description, require(start, "start"), require(every, "every"),
+                        require(until, "until"));
+                break;
+            default:
+                throw new ChatbotExceptions("unknown task type '" + type + "'");
+        }
+        if (isDone) {
+            task.markAsDone();
+        }
+        return task;
+    }
+
+    /**
+     * Flattens line breaks in an imported description, since every task must fit
+     * on one line of the data file.
+     *
+     * @param description The description as read from the import file.
+     * @return The description on a single line.
+     * @throws ChatbotExceptions If the description is empty or contains '|', which
+     *                           separates the fields of the data file.
+     */
+    static String cleanDescription(String description) throws ChatbotExceptions {
+        String cleaned = description == null ? "" : description.replaceAll("[\\r\\n]+", " ").trim();
+        if (cleaned.isEmpty()) {
+            throw new ChatbotExceptions("the description is empty");
+        }
+        if (cleaned.indexOf('|') >= 0) {
+            throw new ChatbotExceptions("the description contains '|'");
+        }
+        return cleaned;
+    }
+
+    private static String require(String value, String field) throws ChatbotExceptions {
+        if (value == null || value.isEmpty()) {
+            throw new ChatbotExceptions("the " + field + " field is missing");
+        }
+        return value;
+    }
+
+    /**
+     * Wraps a record-level error with the line it was found on.
+     *
+     * @param lineNumber The 1-based line number of the record.
+     * @param cause      The error raised while parsing the record.
+     * @return An exception describing where the import failed.
+     */
+    static ChatbotExceptions invalidRecord(long lineNumber, ChatbotExceptions cause) {
+        String reason = cause.getMessage().replaceFirst("^OOPS!!! ", "");
+        return new ChatbotExceptions("OOPS!!! Line " + lineNumber + " is not a valid task: " + reason);
+    }
+}
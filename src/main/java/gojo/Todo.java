@@ -23,9 +23,9 @@ public class Todo extends Task {
      * @return The string representation of the todo task.
      */
     @Override
-    public String toString() {
+    protected String renderDisplay() {
 
-        return "[T]" + super.toString();
+        return "[T]" + super.renderDisplay();
     }
 
     /**
@@ -35,8 +35,8 @@ public class Todo extends Task {
      * @return A formatted string suitable for saving to a file.
      */
     @Override
-    public String toFileFormat() {
+    protected String renderFileFormat() {
 
-        return "T" + super.toFileFormat();
+        return "T" + super.renderFileFormat();
     }
 }
@@ -0,0 +1,60 @@
+package gojo;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Holds what is needed to undo a group of commands started with BEGIN.
+ * <p>
+ * At BEGIN the order of the tasks and whether each is done is recorded; that
+ * is all a command can change, since descriptions and dates are never edited
+ * in place. Saving is held back until COMMIT writes the file once, so the
+ * file only ever holds the state before or after the whole group. ROLLBACK
+ * puts the recorded state back into the task list.
+ * </p>
+ */
+public class Transaction {
+    private final List<Task> savedOrder;
+    private final Map<Task, Boolean> savedDone = new IdentityHashMap<>();
+    private boolean isRollbackOnly;
+
+    /**
+     * Starts a transaction over the current state of a task list.
+     *
+     * @param tasks The task list the transaction applies to.
+     */
+    public Transaction(TaskList tasks) {
+        savedOrder = new ArrayList<>(tasks.getAllTasks());
+        for (Task task : savedOrder) {
+            savedDone.put(task, task.isDone);
+        }
+    }
+
+    /**
+     * Records that a command in the transaction failed, so that it can no
+     * longer be committed.
+     */
+    public void markRollbackOnly() {
+        isRollbackOnly = true;
+    }
+
+    /**
+     * Returns whether a command in the transaction has failed.
+     *
+     * @return True if the transaction can only be rolled back.
+     */
+    public boolean isRollbackOnly() {
+        return isRollbackOnly;
+    }
+
+    /**
+     * Puts the task list back the way it was when the transaction began.
+     *
+     * @param tasks The task list the transaction applies to.
+     */
+    public void rollback(TaskList tasks) {
+        tasks.restore(savedOrder, savedDone);
+    }
+}
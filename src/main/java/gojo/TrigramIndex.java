@@ -0,0 +1,275 @@
+package gojo;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Finds tasks whose description is close to a search word, allowing for typos.
+ * <p>
+ * Every word of every description is broken into overlapping three-letter
+ * pieces (trigrams), and the index maps each trigram to the tasks that contain
+ * it. A misspelt word still shares most of its trigrams with the intended one,
+ * so candidates are collected from a handful of postings instead of scanning
+ * every task. Only those candidates are then checked with a bounded edit
+ * distance.
+ * </p>
+ * <p>
+ * A task is only a candidate if it shares enough of each query word's
+ * trigrams to be within reach: one edit changes at most three trigrams, and a
+ * swap of two letters at most four, so a word with t trigrams that is k edits
+ * away shares at least t - 4k of them. The postings are walked from shortest
+ * to longest, and only the shortest few can add new candidates, since a task
+ * missing from all of them cannot reach that count in the rest.
+ * </p>
+ */
+public class TrigramIndex implements TaskListener {
+    // Marks the start and end of a word so that short words still have trigrams.
+    private static final char BOUNDARY = '$';
+
+    private final Map<String, Set<Task>> postings = new HashMap<>();
+
+    // The order tasks were added in, used to break ties between equal matches.
+    private final Map<Task, Long> order = new IdentityHashMap<>();
+    private long nextSequence;
+
+    /**
+     * Constructs an index over the given tasks.
+     *
+     * @param tasks The tasks to index initially.
+     */
+    public TrigramIndex(List<Task> tasks) {
+        tasksAdded(tasks);
+    }
+
+    /**
+     * Returns the tasks whose description has a word close to every word of the
+     * query, best match first.
+     * <p>
+     * Matching ignores case. Words of up to four letters may be one edit away,
+     * longer words two edits; swapping two neighbouring letters counts as one.
+     * Matches are ranked by the total number of edits, then by the order the
+     * tasks were added.
+     * </p>
+     *
+     * @param query The words to search for.
+     * @return The matching tasks, ranked.
+     */
+    public List<Task> search(String query) {
+        String[] queryWords = words(query);
+        if (queryWords.length == 0) {
+            return new ArrayList<>();
+        }
+
+        Map<Task, Integer> distances = new IdentityHashMap<>();
+        for (Task task : candidates(queryWords)) {
+            int distance = distance(queryWords, task.description);
+            if (distance >= 0) {
+                distances.put(task, distance);
+            }
+        }
+        List<Task> matches = new ArrayList<>(distances.keySet());
+        matches.sort((a, b) -> distances.get(a).equals(distances.get(b))
+                ? Long.compare(order.get(a), order.get(b))
+                : Integer.compare(distances.get(a), distances.get(b)));
+        return matches;
+    }
+
+    /**
+     * Returns the tasks that share enough trigrams with every query word to be
+     * within its edit limit. Only these are checked with the edit distance.
+     *
+     * @param queryWords The lower-case words searched for.
+     * @return The candidate tasks.
+     */
+    Set<Task> candidates(String[] queryWords) {
+        Set<Task> candidates = null;
+        for (String word : queryWords) {
+            Set<String> wordTrigrams = trigrams(word);
+            List<Set<Task>> lists = new ArrayList<>();
+            for (String trigram : wordTrigrams) {
+                lists.add(postings.getOrDefault(trigram, Collections.emptySet()));
+            }
+            lists.sort(Comparator.comparingInt(Set::size));
+            // Postings are only ever found through a shared trigram, so at least one is needed
+            int needed = Math.max(1, wordTrigrams.size() - 4 * maxEdits(word));
+
+            // A task can only reach the count if it is in one of the shortest
+            // lists.size() - needed + 1 postings; the rest only add to counts
+            Map<Task, Integer> hits = new IdentityHashMap<>();
+            int seeding = lists.size() - needed + 1;
+            for (int i = 0; i < lists.size(); i++) {
+                Set<Task> posting = lists.get(i);
+                if (i < seeding) {
+                    for (Task task : posting) {
+                        if (candidates == null || candidates.contains(task)) {
+                            hits.merge(task, 1, Integer::sum);
+                        }
+                    }
+                } else {
+                    for (Map.Entry<Task, Integer> entry : hits.entrySet()) {
+                        if (posting.contains(entry.getKey())) {
+                            entry.setValue(entry.getValue() + 1);
+                        }
+                    }
+                }
+            }
+
+            Set<Task> survivors = Collections.newSetFromMap(new IdentityHashMap<>());
+            for (Map.Entry<Task, Integer> entry : hits.entrySet()) {
+                if (entry.getValue() >= needed) {
+                    survivors.add(entry.getKey());
+                }
+            }
+            candidates = survivors;
+        }
+        return candidates;
+    }
+
+    /**
+     * Returns whether a description would be found by {@link #search(String)}.
+     *
+     * @param query       The words searched for.
+     * @param description The description to test.
+     * @return True if every query word is close to a word of the description.
+     */
+    public static boolean matches(String query, String description) {
+        String[] queryWords = words(query);
+        return queryWords.length > 0 && distance(queryWords, description) >= 0;
+    }
+
+    @Override
+    public void taskAdded(Task task) {
+        order.put(task, nextSequence++);
+        for (String trigram : trigrams(task.description)) {
+            postings.computeIfAbsent(trigram, t -> Collections.newSetFromMap(new IdentityHashMap<>())).add(task);
+        }
+    }
+
+    @Override
+    public void taskRemoved(Task task) {
+        order.remove(task);
+        for (String trigram : trigrams(task.description)) {
+            Set<Task> posting = postings.get(trigram);
+            if (posting != null) {
+                posting.remove(task);
+                if (posting.isEmpty()) {
+                    postings.remove(trigram);
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the total number of edits needed to match every query word to its
+     * closest word in the description, or -1 if some query word is too far from
+     * all of them.
+     */
+    private static int distance(String[] queryWords, String description) {
+        String[] taskWords = words(description);
+        int total = 0;
+        for (String queryWord : queryWords) {
+            int limit = maxEdits(queryWord);
+            int best = limit + 1;
+            for (String taskWord : taskWords) {
+                best = Math.min(best, boundedDistance(queryWord, taskWord, Math.min(limit, best - 1)));
+                if (best == 0) {
+                    break;
+                }
+            }
+            if (best > limit) {
+                return -1;
+            }
+            total += best;
+        }
+        return total;
+    }
+
+    /**
+     * Returns how many edits a query word may be away from a word of a
+     * description.
+     */
+    private static int maxEdits(String word) {
+        return word.length() <= 4 ? 1 : 2;
+    }
+
+    /**
+     * Returns the edit distance between two words, counting a swap of two
+     * neighbouring letters as one edit, or {@code limit + 1} as soon as it is
+     * known to exceed the limit.
+     * Only the band of cells within {@code limit} of the diagonal is filled in.
+     */
+    static int boundedDistance(String a, String b, int limit) {
+        if (Math.abs(a.length() - b.length()) > limit) {
+            return limit + 1;
+        }
+        int outOfRange = limit + 1;
+        int[] beforePrevious = new int[b.length() + 1];
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            int from = Math.max(1, i - limit);
+            int to = Math.min(b.length(), i + limit);
+            current[0] = i;
+            if (from > 1) {
+                current[from - 1] = outOfRange;
+            }
+            int rowBest = from == 1 ? i : outOfRange;
+            for (int j = from; j <= to; j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                int value = Math.min(previous[j - 1] + cost, current[j - 1] + 1);
+                if (j < i + limit) {
+                    // The cell above lies inside the band
+                    value = Math.min(value, previous[j] + 1);
+                }
+                if (i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1)) {
+                    value = Math.min(value, beforePrevious[j - 2] + 1);
+                }
+                current[j] = Math.min(value, outOfRange);
+                rowBest = Math.min(rowBest, current[j]);
+            }
+            if (to < b.length()) {
+                current[to + 1] = outOfRange;
+            }
+            if (rowBest > limit) {
+                return outOfRange;
+            }
+            int[] swap = beforePrevious;
+            beforePrevious = previous;
+            previous = current;
+            current = swap;
+        }
+        return Math.min(previous[b.length()], outOfRange);
+    }
+
+    /**
+     * Returns the trigrams of every word of the text, without duplicates.
+     */
+    private static Set<String> trigrams(String text) {
+        Set<String> result = new LinkedHashSet<>();
+        for (String word : words(text)) {
+            String padded = BOUNDARY + word + BOUNDARY;
+            for (int i = 0; i + 3 <= padded.length(); i++) {
+                result.add(padded.substring(i, i + 3));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Splits text into lower-case words made of letters and digits.
+     */
+    private static String[] words(String text) {
+        String trimmed = text.toLowerCase().replaceAll("[^\\p{L}\\p{N}]+", " ").trim();
+        return trimmed.isEmpty() ? new String[0] : trimmed.split(" ");
+    }
+}
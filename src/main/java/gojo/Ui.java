@@ -1,6 +1,7 @@
 package gojo;
 
-import java.util.Scanner;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 
 /**
  * Handles all interactions with the user, including reading input and printing
@@ -13,15 +14,18 @@ import java.util.Scanner;
  * </p>
  */
 public class UI {
-    private final Scanner sc;
+    private LineReader reader;
+
+    // Prompts are only shown to a person typing at a terminal, not to piped input.
+    private final boolean isInteractive = System.console() != null;
     private static final String LINE_SEPARATOR = "____________________________________________________________";
 
     /**
      * Constructs a new Ui instance.
-     * Initializes the Scanner to read from standard input (keyboard).
+     * The reader of standard input (keyboard) is only created when the first
+     * command is read, so it does not delay the welcome message.
      */
     public UI() {
-        this.sc = new Scanner(System.in);
     }
 
     /**
@@ -104,14 +108,24 @@ public class UI {
     /**
      * Reads a command from the user.
      * <p>
-     * Prints a prompt "You: " and waits for the user to type a line of text.
+     * Prints a prompt "You: " if the user is at a terminal, and waits for a line
+     * of text. When commands are piped in, no prompt is printed.
      * </p>
      * 
-     * @return The user specified command string.
+     * @return The user specified command string, or null once the input has ended.
      */
     public String readCommand() {
-        System.out.print("You: ");
-        return sc.nextLine();
+        if (isInteractive) {
+            System.out.print("You: ");
+        }
+        if (reader == null) {
+            reader = new LineReader(System.in);
+        }
+        try {
+            return reader.readLine();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
     }
 
     /**
@@ -0,0 +1,158 @@
+package gojo;
+
+import java.util.List;
+
+/**
+ * Represents one named task list together with its own data file and the
+ * indexes kept alongside it.
+ * <p>
+ * Each workspace is independent: its tasks are saved to its own file, and its
+ * query cache and indexes only ever see its own tasks.
+ * </p>
+ */
+public class Workspace {
+    // Rough heap cost of one task and its index entries, excluding its text.
+    private static final int BYTES_PER_TASK = 400;
+
+    private final String name;
+    private final Storage storage;
+    private final TaskList tasks;
+    private final QueryCache queryCache;
+    private final DueIndex dueIndex;
+    private final TrigramIndex trigramIndex;
+    private final TagIndex tagIndex;
+    private final EventIndex eventIndex;
+    private final TaskStatistics statistics;
+    private final AuditLog auditLog;
+
+    /**
+     * Constructs a workspace from tasks that have already been loaded.
+     *
+     * @param name           The name of the workspace.
+     * @param storage        The storage of the workspace's data file.
+     * @param loadedTasks    The tasks read from the data file.
+     * @param queryCacheSize The number of query results to cache.
+     */
+    public Workspace(String name, Storage storage, List<Task> loadedTasks, int queryCacheSize) {
+        this.name = name;
+        this.storage = storage;
+        tasks = new TaskList(loadedTasks);
+        queryCache = new QueryCache(queryCacheSize);
+        tasks.addListener(queryCache);
+        dueIndex = new DueIndex(tasks.getAllTasks());
+        tasks.addListener(dueIndex);
+        trigramIndex = new TrigramIndex(tasks.getAllTasks());
+        tasks.addListener(trigramIndex);
+        tagIndex = new TagIndex(tasks.getAllTasks());
+        tasks.addListener(tagIndex);
+        eventIndex = new EventIndex(tasks.getAllTasks());
+        tasks.addListener(eventIndex);
+        statistics = new TaskStatistics(tasks.getAllTasks());
+        tasks.addListener(statistics);
+        auditLog = new AuditLog(storage.getAuditPath(), tasks);
+        tasks.addListener(auditLog);
+    }
+
+    /**
+     * Returns the name of the workspace.
+     *
+     * @return The name.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Returns the storage of the workspace's data file.
+     *
+     * @return The storage.
+     */
+    public Storage getStorage() {
+        return storage;
+    }
+
+    /**
+     * Returns the tasks of the workspace.
+     *
+     * @return The task list.
+     */
+    public TaskList getTasks() {
+        return tasks;
+    }
+
+    /**
+     * Returns the cache of FIND and SCHEDULE results of the workspace.
+     *
+     * @return The query cache.
+     */
+    public QueryCache getQueryCache() {
+        return queryCache;
+    }
+
+    /**
+     * Returns the pending tasks of the workspace ordered by due date.
+     *
+     * @return The due-date index.
+     */
+    public DueIndex getDueIndex() {
+        return dueIndex;
+    }
+
+    /**
+     * Returns the trigram index over the descriptions of the workspace.
+     *
+     * @return The trigram index.
+     */
+    public TrigramIndex getTrigramIndex() {
+        return trigramIndex;
+    }
+
+    /**
+     * Returns the bitmap index over the tags and fields of the workspace.
+     *
+     * @return The tag index.
+     */
+    public TagIndex getTagIndex() {
+        return tagIndex;
+    }
+
+    /**
+     * Returns the interval tree over the pending events of the workspace.
+     *
+     * @return The event index.
+     */
+    public EventIndex getEventIndex() {
+        return eventIndex;
+    }
+
+    /**
+     * Returns the running totals of the workspace.
+     *
+     * @return The task statistics.
+     */
+    public TaskStatistics getStatistics() {
+        return statistics;
+    }
+
+    /**
+     * Returns the log of every change to the workspace.
+     *
+     * @return The audit log.
+     */
+    public AuditLog getAuditLog() {
+        return auditLog;
+    }
+
+    /**
+     * Returns a rough estimate of how much heap the workspace occupies.
+     *
+     * @return The estimated size in bytes.
+     */
+    public long estimateBytes() {
+        long bytes = 0;
+        for (Task task : tasks.getAllTasks()) {
+            bytes += BYTES_PER_TASK + 2L * task.description.length();
+        }
+        return bytes;
+    }
+}
@@ -0,0 +1,245 @@
+package gojo;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Keeps track of the named workspaces and which of them are in memory.
+ * <p>
+ * Every workspace lives in its own file in one data directory, named after
+ * the workspace, e.g. data/work.txt for the workspace "work". A workspace is
+ * only read from disk when it is first used. When more workspaces are loaded
+ * than allowed, or their estimated size exceeds the heap budget, the least
+ * recently used ones are dropped from memory; every change is saved as it is
+ * made, so nothing is lost and they are simply read again on next use.
+ * </p>
+ */
+public class Workspaces {
+    private final Path directory;
+    private final String suffix;
+    private final String defaultName;
+    private final int maxLoaded;
+    private final long heapBudget;
+    private final int queryCacheSize;
+
+    // Loaded workspaces in access order, least recently used first.
+    private final LinkedHashMap<String, Workspace> loaded = new LinkedHashMap<>(16, 0.75f, true);
+
+    // Shares repeated values between loaded tasks; null if off.
+    private LoadDeduplicator deduplicator;
+
+    private Consumer<Workspace> onLoad = workspace -> { };
+    private Consumer<Workspace> onEvict = workspace -> { };
+
+    /**
+     * Constructs the set of workspaces stored next to the given default data
+     * file. The default workspace takes its name from that file.
+     *
+     * @param defaultFile    The data file of the default workspace, e.g. data/gojo.txt.
+     * @param maxLoaded      The most workspaces to keep in memory at once.
+     * @param heapBudget     The estimated bytes loaded workspaces may occupy.
+     * @param queryCacheSize The number of query results each workspace caches.
+     */
+    public Workspaces(String defaultFile, int maxLoaded, long heapBudget, int queryCacheSize) {
+        Path path = Paths.get(defaultFile);
+        String fileName = path.getFileName().toString();
+        int dot = fileName.indexOf('.');
+        this.directory = path.getParent() == null ? Paths.get(".") : path.getParent();
+        this.defaultName = dot < 0 ? fileName : fileName.substring(0, dot);
+        this.suffix = dot < 0 ? "" : fileName.substring(dot);
+        this.maxLoaded = maxLoaded;
+        this.heapBudget = heapBudget;
+        this.queryCacheSize = queryCacheSize;
+    }
+
+    /**
+     * Sets the actions to run when a workspace is loaded into or dropped from
+     * memory, e.g. to keep reminders in step.
+     *
+     * @param onLoad  Called after a workspace is loaded.
+     * @param onEvict Called after a workspace is dropped.
+     */
+    public void setHooks(Consumer<Workspace> onLoad, Consumer<Workspace> onEvict) {
+        this.onLoad = onLoad;
+        this.onEvict = onEvict;
+    }
+
+    /**
+     * Returns the name of the default workspace.
+     *
+     * @return The default name.
+     */
+    public String getDefaultName() {
+        return defaultName;
+    }
+
+    /**
+     * Makes every workspace loaded from now on share repeated descriptions and
+     * dates through the given tables.
+     *
+     * @param deduplicator The tables to share values through, or null to stop.
+     */
+    public void setDeduplicator(LoadDeduplicator deduplicator) {
+        this.deduplicator = deduplicator;
+    }
+
+    /**
+     * Returns the storage of the named workspace's data file.
+     *
+     * @param name The name of the workspace.
+     * @return The storage.
+     */
+    public Storage storageFor(String name) {
+        return new Storage(directory.resolve(name + suffix).toString(), deduplicator);
+    }
+
+    /**
+     * Adds a workspace whose tasks were loaded elsewhere, such as the default
+     * workspace read in the background at startup.
+     *
+     * @param workspace The loaded workspace.
+     */
+    public void add(Workspace workspace) {
+        loaded.put(workspace.getName(), workspace);
+        onLoad.accept(workspace);
+        evict(workspace.getName());
+    }
+
+    /**
+     * Returns the named workspace, reading it from disk if it is not in memory.
+     * A workspace that has never been used starts out empty.
+     *
+     * @param name The name of the workspace.
+     * @return The workspace.
+     * @throws ChatbotExceptions If the name is not a valid workspace name.
+     */
+    public Workspace get(String name) throws ChatbotExceptions {
+        if (!name.matches("[A-Za-z0-9_-]+")) {
+            throw new ChatbotExceptions("OOPS!!! A workspace name can only contain letters, digits, '-' and '_'.");
+        }
+        Workspace workspace = loaded.get(name);
+        if (workspace == null) {
+            Storage storage = storageFor(name);
+            workspace = new Workspace(name, storage, storage.load(), queryCacheSize);
+            add(workspace);
+        }
+        return workspace;
+    }
+
+    /**
+     * Returns whether the named workspace is in memory.
+     *
+     * @param name The name of the workspace.
+     * @return True if it is loaded.
+     */
+    public boolean isLoaded(String name) {
+        return loaded.containsKey(name);
+    }
+
+    /**
+     * Returns the number of tasks of a loaded workspace.
+     *
+     * @param name The name of the workspace.
+     * @return The number of tasks, or -1 if the workspace is not loaded.
+     */
+    public int sizeOf(String name) {
+        // Iterating does not count as an access, unlike get
+        for (Workspace workspace : loaded.values()) {
+            if (workspace.getName().equals(name)) {
+                return workspace.getTasks().size();
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the names of all workspaces, whether on disk or only in memory.
+     *
+     * @return The names in alphabetical order.
+     */
+    public List<String> names() {
+        TreeSet<String> names = new TreeSet<>(loaded.keySet());
+        names.add(defaultName);
+        try (Stream<Path> files = Files.list(directory)) {
+            files.map(file -> file.getFileName().toString())
+                    .filter(fileName -> fileName.endsWith(suffix))
+                    .map(fileName -> fileName.substring(0, fileName.length() - suffix.length()))
+                    .filter(name -> name.matches("[A-Za-z0-9_-]+"))
+                    .forEach(names::add);
+        } catch (IOException e) {
+            // No data directory yet, so only the workspaces in memory exist
+        }
+        return new ArrayList<>(names);
+    }
+
+    /**
+     * Finds the tasks containing a keyword in every workspace.
+     * <p>
+     * The workspaces are searched in parallel. Loaded workspaces are searched
+     * in memory; the others are read from disk for the search only and are not
+     * kept, so a search does not push the workspaces in use out of memory. The
+     * caller must not change any task list while the search runs.
+     * </p>
+     *
+     * @param keyword The keyword to search for.
+     * @return The matching tasks of each workspace that has any, by name.
+     */
+    public Map<String, List<Task>> findAll(String keyword) {
+        Map<String, List<Task>> inMemory = new HashMap<>();
+        for (Workspace workspace : loaded.values()) {
+            inMemory.put(workspace.getName(), workspace.getTasks().getAllTasks());
+        }
+        List<Map.Entry<String, List<Task>>> results = names().parallelStream()
+                .map(name -> {
+                    List<Task> tasks = inMemory.get(name);
+                    if (tasks == null) {
+                        tasks = storageFor(name).load();
+                    }
+                    List<Task> matches = tasks.stream()
+                            .filter(task -> task.description.contains(keyword))
+                            .collect(Collectors.toList());
+                    return Map.entry(name, matches);
+                })
+                .filter(entry -> !entry.getValue().isEmpty())
+                .collect(Collectors.toList());
+        Map<String, List<Task>> byName = new LinkedHashMap<>();
+        for (Map.Entry<String, List<Task>> entry : results) {
+            byName.put(entry.getKey(), entry.getValue());
+        }
+        return byName;
+    }
+
+    /**
+     * Drops least recently used workspaces, other than the one in use, until
+     * both the count and the heap budget are respected.
+     */
+    private void evict(String inUse) {
+        long bytes = 0;
+        for (Workspace workspace : loaded.values()) {
+            bytes += workspace.estimateBytes();
+        }
+        List<String> eldestFirst = new ArrayList<>(loaded.keySet());
+        for (String name : eldestFirst) {
+            if (loaded.size() <= maxLoaded && bytes <= heapBudget) {
+                return;
+            }
+            if (name.equals(inUse)) {
+                continue;
+            }
+            Workspace evicted = loaded.remove(name);
+            bytes -= evicted.estimateBytes();
+            onEvict.accept(evicted);
+        }
+    }
+}
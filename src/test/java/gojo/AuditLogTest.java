@@ -0,0 +1,120 @@
+package gojo;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class AuditLogTest {
+    private static final LocalDateTime START = LocalDateTime.of(2030, 1, 16, 9, 0);
+
+    // A clock that moves on by one hour every time it is read.
+    private static class SteppingClock {
+        private int hours;
+
+        LocalDateTime next() {
+            return START.plusHours(hours++);
+        }
+    }
+
+    private static List<String> descriptions(List<Task> tasks) {
+        List<String> shown = new ArrayList<>();
+        for (Task task : tasks) {
+            shown.add(task.toString());
+        }
+        return shown;
+    }
+
+    @Test
+    public void asOf_afterSeveralChanges_rebuildsEachState(@TempDir Path dir) throws ChatbotExceptions {
+        TaskList tasks = new TaskList();
+        AuditLog log = new AuditLog(dir.resolve("gojo.txt.audit").toString(), tasks, 3, new SteppingClock()::next);
+        tasks.addListener(log);
+
+        tasks.add(new Todo("read book"));
+        log.flush(); // 09:00
+        tasks.add(new Todo("return book"));
+        tasks.markAsDone(0);
+        log.flush(); // 10:00
+        tasks.delete(0);
+        log.flush(); // 11:00, after a checkpoint at 10:00
+        tasks.add(new Todo("buy milk"));
+        log.flush(); // 12:00
+
+        assertEquals(List.of("[T][ ] read book"), descriptions(log.asOf(START.plusMinutes(30))));
+        assertEquals(List.of("[T][X] read book", "[T][ ] return book"),
+                descriptions(log.asOf(START.plusHours(1))));
+        assertEquals(List.of("[T][ ] return book"), descriptions(log.asOf(START.plusHours(2))));
+        assertEquals(List.of("[T][ ] return book", "[T][ ] buy milk"),
+                descriptions(log.asOf(START.plusHours(5))));
+        assertThrows(ChatbotExceptions.class, () -> log.asOf(START.minusDays(1)));
+    }
+
+    @Test
+    public void discard_rolledBackChanges_neverWritten(@TempDir Path dir) throws Exception {
+        TaskList tasks = new TaskList();
+        AuditLog log = new AuditLog(dir.resolve("gojo.txt.audit").toString(), tasks, 100, new SteppingClock()::next);
+        tasks.addListener(log);
+        tasks.add(new Todo("read book"));
+        log.flush();
+
+        Transaction transaction = new Transaction(tasks);
+        tasks.markAsDone(0);
+        tasks.add(new Todo("return book"));
+        transaction.rollback(tasks);
+        log.discard();
+        tasks.markAsDone(0);
+        log.flush();
+
+        List<AuditLog.Entry> history = log.history(tasks.get(0));
+        assertEquals(2, history.size());
+        assertEquals(AuditLog.Operation.ADD, history.get(0).getOperation());
+        assertEquals(AuditLog.Operation.MARK, history.get(1).getOperation());
+        assertEquals(START.plusHours(1), history.get(1).getTime());
+        try (Stream<Path> files = Files.list(dir)) {
+            assertEquals(1, files.count());
+        }
+    }
+
+    @Test
+    public void constructor_existingLog_continuesWhereItLeftOff(@TempDir Path dir) throws ChatbotExceptions {
+        String path = dir.resolve("gojo.txt.audit").toString();
+        SteppingClock clock = new SteppingClock();
+        TaskList tasks = new TaskList();
+        AuditLog log = new AuditLog(path, tasks, 100, clock::next);
+        tasks.addListener(log);
+        tasks.add(new Todo("read book"));
+        log.flush();
+
+        // Reopened over the same tasks, as after a restart
+        TaskList reloaded = new TaskList(new ArrayList<>(List.of(new Todo("read book"))));
+        AuditLog reopened = new AuditLog(path, reloaded, 100, clock::next);
+        reloaded.addListener(reopened);
+        reloaded.markAsDone(0);
+        reopened.flush();
+
+        assertEquals(2, reopened.history(reloaded.get(0)).size());
+        assertEquals(List.of("[T][ ] read book"), descriptions(reopened.asOf(START)));
+    }
+
+    @Test
+    public void flush_firstChangeToLoadedList_checkpointsLoadedState(@TempDir Path dir) throws ChatbotExceptions {
+        TaskList tasks = new TaskList(new ArrayList<>(List.of(new Todo("read book"), new Todo("write code"))));
+        AuditLog log = new AuditLog(dir.resolve("gojo.txt.audit").toString(), tasks, 100, () -> START);
+        tasks.addListener(log);
+        tasks.markAsDone(1);
+        log.flush();
+
+        // The checkpoint and the change share a timestamp, so replay both and check the change applied once
+        assertEquals(List.of("[T][ ] read book", "[T][X] write code"), descriptions(log.asOf(START)));
+        assertEquals(1, log.history(tasks.get(1)).size());
+    }
+}
@@ -0,0 +1,104 @@
+package gojo;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Compares the date grammar of {@link DateParser} with the fixed-format loop
+ * it replaced, on inputs both of them understand.
+ * <p>
+ * The old parser tried each formatter in turn and caught the exception of
+ * every one that did not fit, so formats late in the list were the slowest.
+ * The inputs cover each of those formats, and each parser is warmed up before
+ * it is timed.
+ * </p>
+ * <p>
+ * Run it with {@code ./gradlew dateParserBenchmark}, or directly with an
+ * optional number of rounds.
+ * </p>
+ */
+public class DateParserBenchmark {
+    private static final int DEFAULT_ROUNDS = 200_000;
+
+    private static final List<String> INPUTS = List.of("2/12/2019 1800", "2019-12-02 1800", "2-12-2019 1800",
+            "02 Dec 2019 18:00", "2/12/2019", "2019-12-02", "2-12-2019", "Dec 2 2019");
+
+    // The formats of the old parser, tried in this order
+    private static final List<DateTimeFormatter> LEGACY_DATE_TIME_FORMATS = Arrays.asList(
+            DateTimeFormatter.ofPattern("d/M/yyyy HHmm"),
+            DateTimeFormatter.ofPattern("yyyy-MM-dd HHmm"),
+            DateTimeFormatter.ofPattern("d-M-yyyy HHmm"),
+            DateTimeFormatter.ofPattern("dd MMM yyyy HH:mm"));
+    private static final List<DateTimeFormatter> LEGACY_DATE_ONLY_FORMATS = Arrays.asList(
+            DateTimeFormatter.ofPattern("d/M/yyyy"),
+            DateTimeFormatter.ofPattern("yyyy-MM-dd"),
+            DateTimeFormatter.ofPattern("d-M-yyyy"),
+            DateTimeFormatter.ofPattern("MMM d yyyy"));
+
+    /**
+     * Runs the benchmark and prints the time per date of both parsers.
+     *
+     * @param args Optionally the number of rounds over the inputs.
+     */
+    public static void main(String[] args) {
+        int rounds = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_ROUNDS;
+        LocalDateTime now = LocalDateTime.now();
+        for (String input : INPUTS) {
+            if (!legacyParse(input).equals(DateParser.parse(input, now))) {
+                throw new IllegalStateException("The parsers disagree on " + input);
+            }
+        }
+
+        System.out.println("Parsing " + INPUTS.size() + " formats, " + rounds + " rounds each");
+        for (int pass = 0; pass < 2; pass++) {
+            // The first pass warms up both parsers and is not reported
+            long legacy = time(rounds, DateParserBenchmark::legacyParse);
+            long grammar = time(rounds, input -> DateParser.parse(input, now));
+            if (pass == 1) {
+                System.out.printf("fixed-format loop %6.0f ns/date%n", (double) legacy / rounds / INPUTS.size());
+                System.out.printf("grammar           %6.0f ns/date%n", (double) grammar / rounds / INPUTS.size());
+            }
+        }
+    }
+
+    private static long time(int rounds, Function<String, LocalDateTime> parser) {
+        long checksum = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < rounds; i++) {
+            for (String input : INPUTS) {
+                checksum += parser.apply(input).getMinute();
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+        if (checksum < 0) {
+            System.out.println(checksum);
+        }
+        return elapsed;
+    }
+
+    /**
+     * The parser as it was before the grammar, without its keywords.
+     */
+    private static LocalDateTime legacyParse(String input) {
+        for (DateTimeFormatter formatter : LEGACY_DATE_TIME_FORMATS) {
+            try {
+                return LocalDateTime.parse(input.trim(), formatter);
+            } catch (DateTimeParseException ignored) {
+                // Try next format
+            }
+        }
+        for (DateTimeFormatter formatter : LEGACY_DATE_ONLY_FORMATS) {
+            try {
+                return LocalDate.parse(input.trim(), formatter).atTime(23, 59);
+            } catch (DateTimeParseException ignored) {
+                // Try next format
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,69 @@
+package gojo;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class DateParserTest {
+    // A Wednesday afternoon
+    private static final LocalDateTime NOW = LocalDateTime.of(2030, 1, 16, 14, 20);
+
+    private static LocalDateTime at(int month, int day, int hour, int minute) {
+        return LocalDateTime.of(2030, month, day, hour, minute);
+    }
+
+    @Test
+    public void parse_fixedFormats_matchOldFormatters() {
+        assertEquals(LocalDateTime.of(2019, 12, 2, 18, 0), DateParser.parse("2/12/2019 1800", NOW));
+        assertEquals(LocalDateTime.of(2019, 6, 6, 23, 59), DateParser.parse("2019-06-06", NOW));
+        assertEquals(LocalDateTime.of(2019, 6, 6, 9, 5), DateParser.parse("6-6-2019 0905", NOW));
+        assertEquals(LocalDateTime.of(2019, 6, 6, 18, 0), DateParser.parse("06 Jun 2019 18:00", NOW));
+        assertEquals(LocalDateTime.of(2019, 12, 2, 23, 59), DateParser.parse("Dec 2 2019", NOW));
+        assertEquals(LocalDateTime.of(2019, 2, 28, 23, 59), DateParser.parse("2019-02-30", NOW));
+    }
+
+    @Test
+    public void parse_relativeDays_countFromNow() {
+        assertEquals(at(1, 16, 23, 59), DateParser.parse("today", NOW));
+        assertEquals(at(1, 17, 15, 0), DateParser.parse("tomorrow 3pm", NOW));
+        assertEquals(at(1, 17, 15, 30), DateParser.parse("3:30pm tomorrow", NOW));
+        assertEquals(at(1, 18, 23, 59), DateParser.parse("fri", NOW));
+        assertEquals(at(1, 16, 23, 59), DateParser.parse("wed", NOW));
+        assertEquals(at(1, 23, 12, 0), DateParser.parse("next wed noon", NOW));
+        assertEquals(at(1, 18, 15, 0), DateParser.parse("next fri at 3pm", NOW));
+        assertEquals(at(1, 14, 23, 59), DateParser.parse("last monday", NOW));
+        assertEquals(at(1, 19, 23, 59), DateParser.parse("in 3 days", NOW));
+        assertEquals(at(1, 16, 16, 20), DateParser.parse("in 2 hours", NOW));
+        assertEquals(at(1, 31, 23, 59), DateParser.parse("end of month", NOW));
+        assertEquals(at(1, 20, 23, 59), DateParser.parse("end of week", NOW));
+        assertEquals(at(1, 16, 9, 0), DateParser.parse("9am", NOW));
+        assertEquals(at(1, 16, 0, 30), DateParser.parse("12:30am", NOW));
+    }
+
+    @Test
+    public void parse_invalidInput_returnsNull() throws ChatbotExceptions {
+        assertNull(DateParser.parse("Aug 6th 2pm", NOW));
+        assertNull(DateParser.parse("13pm", NOW));
+        assertNull(DateParser.parse("2019-13-01", NOW));
+        assertNull(DateParser.parse("tomorrow 3", NOW));
+        assertNull(DateParser.parse("in 2 hours 3pm", NOW));
+        assertNull(DateParser.parse("", NOW));
+        assertNull(DateParser.parse("in 999999999 years", NOW));
+        assertThrows(ChatbotExceptions.class, () -> DateParser.parseDateTime("someday"));
+        assertThrows(ChatbotExceptions.class, () -> DateParser.parseDateTime("in 999999999 years"));
+    }
+
+    @Test
+    public void parseFileString_relativeDates_areRejected() throws ChatbotExceptions {
+        assertEquals(LocalDateTime.of(2019, 12, 2, 18, 0), DateParser.parseFileString("2019-12-02 1800"));
+        assertEquals(LocalDateTime.of(2019, 12, 2, 18, 0), DateParser.parseFileString("02 Dec 2019 18:00"));
+        assertEquals(LocalDateTime.of(2019, 12, 2, 23, 59), DateParser.parseFileString("2/12/2019"));
+        for (String relative : new String[] {"in 2 hours", "today", "4pm", "next friday", "end of month"}) {
+            assertThrows(ChatbotExceptions.class, () -> DateParser.parseFileString(relative));
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package gojo;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class DeadlineTest {
+    @Test
+    public void markAsDone_afterRendering_flipsCachedStatus() {
+        Deadline deadline = new Deadline("return [X] book", LocalDateTime.of(2019, 6, 6, 18, 0));
+        String display = deadline.toString();
+        assertEquals("D | 0 | return [X] book | 2019-06-06 1800", deadline.toFileFormat());
+
+        deadline.markAsDone();
+        assertEquals("[D][X] return [X] book (by: Jun 6 2019 18:00)", deadline.toString());
+        assertEquals("D | 1 | return [X] book | 2019-06-06 1800", deadline.toFileFormat());
+        deadline.markAsNotDone();
+        assertEquals(display, deadline.toString());
+    }
+
+    @Test
+    public void toString_whileMarkedOnAnotherThread_neverCorrupts() throws InterruptedException {
+        Deadline deadline = new Deadline("return book", LocalDateTime.of(2019, 6, 6, 18, 0));
+        Thread marker = new Thread(() -> {
+            for (int i = 0; i < 100_000; i++) {
+                deadline.markAsDone();
+                deadline.markAsNotDone();
+            }
+        });
+        marker.start();
+        while (marker.isAlive()) {
+            String shown = deadline.toString();
+            assertTrue(shown.equals("[D][ ] return book (by: Jun 6 2019 18:00)")
+                    || shown.equals("[D][X] return book (by: Jun 6 2019 18:00)"), shown);
+        }
+        marker.join();
+        assertEquals("[D][ ] return book (by: Jun 6 2019 18:00)", deadline.toString());
+    }
+}
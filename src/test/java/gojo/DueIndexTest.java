@@ -0,0 +1,70 @@
+package gojo;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public class DueIndexTest {
+    private static final LocalDateTime NOW = LocalDateTime.of(2020, 1, 10, 12, 0);
+
+    @Test
+    public void upcoming_mixedTasks_returnsSoonestFirst() throws ChatbotExceptions {
+        TaskList taskList = new TaskList();
+        Task late = new Deadline("late", NOW.plusDays(5));
+        Task soon = new Deadline("soon", NOW.plusDays(1));
+        Task event = new Event("meeting", NOW.plusDays(2), NOW.plusDays(3));
+        Task weekly = new RecurringTask("gym", NOW.minusDays(4), Frequency.WEEK, NOW.plusDays(30));
+        taskList.add(late);
+        taskList.add(new Todo("no date"));
+        taskList.add(soon);
+        taskList.add(event);
+        taskList.add(weekly);
+        DueIndex index = new DueIndex(taskList.getAllTasks());
+
+        List<DueIndex.Due> upcoming = index.upcoming(NOW, 3);
+        assertEquals(3, upcoming.size());
+        assertSame(soon, upcoming.get(0).getTask());
+        assertSame(event, upcoming.get(1).getTask());
+        assertSame(weekly, upcoming.get(2).getTask());
+        assertEquals(NOW.plusDays(3), upcoming.get(2).getDue());
+    }
+
+    @Test
+    public void markAsDone_indexedTask_isDroppedAndRestored() throws ChatbotExceptions {
+        TaskList taskList = new TaskList();
+        DueIndex index = new DueIndex(taskList.getAllTasks());
+        taskList.addListener(index);
+        taskList.add(new Deadline("missed", NOW.minusDays(1)));
+        taskList.add(new Deadline("next", NOW.plusDays(1)));
+
+        assertEquals(1, index.overdue(NOW).size());
+        taskList.markAsDone(0);
+        assertEquals(0, index.overdue(NOW).size());
+        taskList.markAsNotDone(0);
+        assertEquals(1, index.overdue(NOW).size());
+
+        taskList.delete(1);
+        assertEquals(0, index.upcoming(NOW, 5).size());
+    }
+
+    @Test
+    public void overdue_eventInProgress_isOverdueOnlyOnceEnded() throws ChatbotExceptions {
+        TaskList taskList = new TaskList();
+        Task workshop = new Event("workshop", NOW.minusHours(1), NOW.plusHours(2));
+        Task missed = new Deadline("missed", NOW.minusHours(3));
+        taskList.add(workshop);
+        taskList.add(missed);
+        DueIndex index = new DueIndex(taskList.getAllTasks());
+
+        assertEquals(1, index.overdue(NOW).size());
+        assertSame(missed, index.overdue(NOW).get(0).getTask());
+        List<DueIndex.Due> later = index.overdue(NOW.plusHours(3));
+        assertEquals(2, later.size());
+        assertSame(workshop, later.get(1).getTask());
+        assertEquals(NOW.plusHours(2), later.get(1).getDue());
+    }
+}
@@ -0,0 +1,69 @@
+package gojo;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class EventIndexTest {
+    private static final LocalDateTime DAY = LocalDateTime.of(2030, 1, 1, 0, 0);
+
+    private static Event event(String description, int fromHour, int toHour) {
+        return new Event(description, DAY.plusHours(fromHour), DAY.plusHours(toHour));
+    }
+
+    @Test
+    public void conflictsWith_overlappingEvents_excludesTouchingAndDone() throws ChatbotExceptions {
+        TaskList taskList = new TaskList();
+        EventIndex index = new EventIndex(taskList.getAllTasks());
+        taskList.addListener(index);
+        Event standup = event("standup", 9, 10);
+        Event review = event("review", 10, 12);
+        Event lunch = event("lunch", 11, 13);
+        taskList.add(standup);
+        taskList.add(review);
+        taskList.add(lunch);
+
+        assertEquals(List.of(lunch), index.conflictsWith(review));
+        assertTrue(index.conflictsWith(standup).isEmpty());
+        assertEquals(1, index.conflicts(DAY, DAY.plusDays(1)).size());
+
+        taskList.markAsDone(2);
+        assertTrue(index.conflictsWith(review).isEmpty());
+    }
+
+    @Test
+    public void overlapping_randomInsertsAndDeletes_matchesPairwiseCheck() throws ChatbotExceptions {
+        Random random = new Random(7);
+        TaskList taskList = new TaskList();
+        EventIndex index = new EventIndex(taskList.getAllTasks());
+        taskList.addListener(index);
+        for (int round = 0; round < 2000; round++) {
+            if (taskList.size() > 0 && random.nextInt(3) == 0) {
+                taskList.delete(random.nextInt(taskList.size()));
+            } else {
+                int from = random.nextInt(500);
+                taskList.add(event("e" + round, from, from + 1 + random.nextInt(30)));
+            }
+
+            LocalDateTime queryFrom = DAY.plusHours(random.nextInt(520));
+            LocalDateTime queryTo = queryFrom.plusHours(random.nextInt(20));
+            List<Event> expected = new ArrayList<>();
+            for (Task task : taskList.getAllTasks()) {
+                Event e = (Event) task;
+                if (e.from.isBefore(queryTo) && e.to.isAfter(queryFrom)) {
+                    expected.add(e);
+                }
+            }
+            List<Event> actual = index.overlapping(queryFrom, queryTo);
+            assertEquals(expected.size(), actual.size());
+            assertTrue(actual.containsAll(expected));
+        }
+        assertEquals(taskList.size(), index.size());
+    }
+}
@@ -0,0 +1,193 @@
+package gojo;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class GojoEngineTest {
+
+    @Test
+    public void submit_pipelinedCommands_runInOrder(@TempDir Path dir) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        GojoEngine engine = new GojoEngine(dir.resolve("gojo.txt").toString(), executor);
+        engine.submit("todo read book");
+        engine.submit("todo write code");
+        CompletableFuture<CommandResult> mark = engine.submit("mark 2");
+        CompletableFuture<CommandResult> list = engine.submit("list");
+
+        CommandResult marked = mark.get();
+        assertFalse(marked.isError());
+        assertEquals(Command.MARK, marked.getCommand());
+        assertEquals("[T][X] write code", marked.getTasks().get(0).toString());
+        assertEquals(2, list.get().getTasks().size());
+        executor.shutdown();
+    }
+
+    @Test
+    public void constructor_givenExecutor_loadsFileOnIt(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("gojo.txt");
+        new Storage(file.toString()).save(List.of(new Todo("read book")));
+        List<Runnable> queued = new ArrayList<>();
+        GojoEngine engine = new GojoEngine(file.toString(), queued::add);
+        engine.start();
+
+        // Nothing is read until the executor runs the load
+        assertEquals(1, queued.size());
+        queued.get(0).run();
+        assertEquals("[T][ ] read book", engine.getTasks().get(0).toString());
+    }
+
+    @Test
+    public void execute_invalidCommand_returnsErrorResult(@TempDir Path dir) {
+        GojoEngine engine = new GojoEngine(dir.resolve("gojo.txt").toString());
+
+        CommandResult result = engine.execute("mark 5");
+        assertTrue(result.isError());
+        assertEquals("OOPS!!! The task number is out of bounds.", result.getError());
+        assertTrue(engine.execute("bye").isExit());
+    }
+
+    @Test
+    public void rollback_afterChanges_restoresListAndFile(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("gojo.txt");
+        GojoEngine engine = new GojoEngine(file.toString());
+        engine.execute("todo read book");
+        engine.execute("todo write code");
+        String saved = Files.readString(file);
+
+        engine.execute("begin");
+        engine.execute("delete 1");
+        engine.execute("mark 1");
+        engine.execute("todo walk dog");
+        assertEquals(saved, Files.readString(file));
+        assertFalse(engine.execute("rollback").isError());
+
+        assertEquals(2, engine.getTasks().size());
+        assertEquals("[T][ ] read book", engine.getTasks().get(0).toString());
+        assertEquals("[T][ ] write code", engine.getTasks().get(1).toString());
+        assertEquals(saved, Files.readString(file));
+    }
+
+    @Test
+    public void commit_afterFailedCommand_undoesTransaction(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("gojo.txt");
+        GojoEngine engine = new GojoEngine(file.toString());
+        engine.execute("begin");
+        engine.execute("todo read book");
+        assertTrue(engine.execute("mark 5").isError());
+        assertTrue(engine.execute("commit").isError());
+        assertEquals(0, engine.getTasks().size());
+
+        engine.execute("begin");
+        engine.execute("todo read book");
+        assertFalse(engine.execute("commit").isError());
+        assertTrue(Files.readString(file).contains("read book"));
+    }
+
+    @Test
+    public void commit_afterFailedReadOnlyCommands_keepsChanges(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("gojo.txt");
+        GojoEngine engine = new GojoEngine(file.toString());
+        engine.execute("begin");
+        engine.execute("todo read book");
+        assertTrue(engine.execute("find zzz").isError());
+        assertTrue(engine.execute("begin").isError());
+        assertTrue(engine.execute("frobnicate").isError());
+        assertTrue(engine.execute("use other").isError());
+
+        assertFalse(engine.execute("commit").isError());
+        assertEquals(1, engine.getTasks().size());
+        assertTrue(Files.readString(file).contains("read book"));
+    }
+
+    @Test
+    public void commit_afterAddRefusedByLimit_undoesTransaction(@TempDir Path dir) throws Exception {
+        GojoEngine engine = new GojoEngine(dir.resolve("gojo.txt").toString());
+        for (int i = 0; i < 100; i++) {
+            engine.execute("todo task " + i);
+        }
+        engine.execute("begin");
+        engine.execute("delete 3");
+        engine.execute("todo walk dog");
+        engine.execute("todo read book");
+        assertEquals("Cannot add more than 100 items", engine.execute("todo write code").getLines().get(0));
+
+        assertTrue(engine.execute("commit").isError());
+        assertEquals(100, engine.getTasks().size());
+        assertEquals("[T][ ] task 2", engine.getTasks().get(2).toString());
+    }
+
+    @Test
+    public void archive_insideTransaction_isRefusedWithoutFailingIt(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("gojo.txt");
+        GojoEngine engine = new GojoEngine(file.toString());
+        engine.execute("begin");
+        engine.execute("todo read book");
+        assertEquals("OOPS!!! Please COMMIT or ROLLBACK before archiving.",
+                engine.execute("archive soon").getError());
+
+        assertFalse(engine.execute("commit").isError());
+        assertTrue(Files.readString(file).contains("read book"));
+    }
+
+    @Test
+    public void commit_saveFails_keepsTransactionOpen(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("gojo.txt");
+        GojoEngine engine = new GojoEngine(file.toString());
+        engine.execute("begin");
+        engine.execute("todo read book");
+        // A directory in the way of the data file makes the save fail
+        Files.createDirectories(file.resolve("blocker"));
+
+        assertTrue(engine.execute("commit").isError());
+        Files.delete(file.resolve("blocker"));
+        Files.delete(file);
+        engine.execute("todo write code");
+        assertFalse(Files.exists(file));
+        assertFalse(engine.execute("commit").isError());
+        assertTrue(Files.readString(file).contains("write code"));
+    }
+
+    @Test
+    public void archive_mixedTasks_movesOnlyOldDoneDatedTasks(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("gojo.txt");
+        LocalDateTime old = LocalDateTime.of(2019, 12, 2, 18, 0);
+        List<Task> tasks = List.of(new Todo("read book"), new Deadline("return book", old),
+                new Deadline("pay rent", old), new Event("meeting", old, old.plusHours(1)),
+                new Deadline("taxes", LocalDateTime.now().plusDays(10)));
+        tasks.get(0).markAsDone();
+        tasks.get(1).markAsDone();
+        tasks.get(3).markAsDone();
+        tasks.get(4).markAsDone();
+        new Storage(file.toString()).save(tasks);
+
+        GojoEngine engine = new GojoEngine(file.toString());
+        assertFalse(engine.execute("archive 30").isError());
+
+        // Todos have no date and pending tasks are still wanted, so both stay
+        Storage storage = new Storage(file.toString());
+        assertEquals(List.of("return book", "meeting"), descriptions(storage.loadArchive()));
+        assertEquals(List.of("read book", "pay rent", "taxes"), descriptions(storage.load()));
+        assertEquals(3, engine.getTasks().size());
+    }
+
+    private static List<String> descriptions(List<Task> tasks) {
+        List<String> result = new ArrayList<>();
+        for (Task task : tasks) {
+            result.add(task.description);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,47 @@
+package gojo;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+public class LineReaderTest {
+
+    private static LineReader readerOf(String text) {
+        return new LineReader(new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    public void readLine_mixedLineEndings_stripsThem() throws IOException {
+        LineReader reader = readerOf("todo read book\r\n\nlist\nbye");
+
+        assertEquals("todo read book", reader.readLine());
+        assertEquals("", reader.readLine());
+        assertEquals("list", reader.readLine());
+        assertEquals("bye", reader.readLine());
+        assertNull(reader.readLine());
+    }
+
+    @Test
+    public void readLine_longLineInSmallChunks_decodesWholeLine() throws IOException {
+        String longLine = "todo café ☕ ".repeat(20_000);
+        byte[] bytes = (longLine + "\r\nbye\n").getBytes(StandardCharsets.UTF_8);
+        // Hand out a few bytes at a time, splitting characters and the "\r\n"
+        InputStream trickle = new ByteArrayInputStream(bytes) {
+            @Override
+            public int read(byte[] b, int off, int len) {
+                return super.read(b, off, Math.min(len, 7));
+            }
+        };
+        LineReader reader = new LineReader(trickle);
+
+        assertEquals(longLine, reader.readLine());
+        assertEquals("bye", reader.readLine());
+        assertNull(reader.readLine());
+    }
+}
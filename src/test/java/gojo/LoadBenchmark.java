@@ -0,0 +1,225 @@
+package gojo;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+/**
+ * Replays a synthetic stream of commands through {@link GojoEngine} in-process
+ * and reports throughput, latency percentiles and allocation rate.
+ * <p>
+ * The stream is drawn from a weighted mix of TODO, DEADLINE, EVENT, MARK,
+ * FIND, SCHEDULE, LIST and DELETE commands by a seeded random generator, so
+ * the same settings always replay the same commands. The data file is seeded
+ * with the given number of tasks before the run. Every setting is printed
+ * with the results, along with the JVM and machine, so a report can be read
+ * and reproduced on its own.
+ * </p>
+ * <p>
+ * Run it with {@code ./gradlew loadBenchmark -PloadArgs="commands=50000 tasks=80"},
+ * or directly with any of the arguments {@code seed=}, {@code commands=},
+ * {@code warmup=}, {@code tasks=} and {@code mix=todo:20,find:30,...}.
+ * To keep the list near its seeded size, an add drawn while the list is
+ * larger than that becomes a DELETE, and a DELETE drawn while it is smaller
+ * becomes a TODO. Commands Gojo reports as errors, such as a FIND without
+ * matches or an add beyond its 100-item limit, are counted separately.
+ * </p>
+ */
+public class LoadBenchmark {
+    private static final String[] WORDS = {"read", "write", "review", "deploy", "fix", "book", "report", "meeting",
+        "server", "dns", "invoice", "groceries", "gym", "call", "design", "release", "backup", "kernel"};
+    private static final String[] TAGS = {"#infra", "#urgent", "#home", "#work"};
+    private static final LocalDate FIRST_DAY = LocalDate.of(2030, 1, 1);
+    private static final int DAYS_SPANNED = 60;
+
+    private final Random random;
+    private final Map<String, Integer> mix;
+    private final int totalWeight;
+    private final int targetSize;
+
+    private LoadBenchmark(long seed, Map<String, Integer> mix, int targetSize) {
+        this.random = new Random(seed);
+        this.mix = mix;
+        this.targetSize = targetSize;
+        this.totalWeight = mix.values().stream().mapToInt(Integer::intValue).sum();
+    }
+
+    /**
+     * Runs the benchmark and prints its settings and results.
+     *
+     * @param args Settings of the form key=value.
+     * @throws Exception If the scratch directory cannot be prepared.
+     */
+    public static void main(String[] args) throws Exception {
+        Map<String, String> settings = new LinkedHashMap<>();
+        settings.put("seed", "42");
+        settings.put("commands", "100000");
+        settings.put("warmup", "20000");
+        settings.put("tasks", "50");
+        settings.put("mix", "todo:10,deadline:7,event:3,mark:15,find:20,schedule:10,list:15,delete:20");
+        for (String arg : args) {
+            int equals = arg.indexOf('=');
+            if (equals < 0 || !settings.containsKey(arg.substring(0, equals))) {
+                System.out.println("Unknown setting '" + arg + "'. Settings: " + settings.keySet());
+                return;
+            }
+            settings.put(arg.substring(0, equals), arg.substring(equals + 1));
+        }
+        long seed = Long.parseLong(settings.get("seed"));
+        int commands = Integer.parseInt(settings.get("commands"));
+        int warmup = Integer.parseInt(settings.get("warmup"));
+        int taskCount = Integer.parseInt(settings.get("tasks"));
+        Map<String, Integer> mix = parseMix(settings.get("mix"));
+
+        Path workDir = Files.createTempDirectory("gojo-load");
+        Path dataFile = workDir.resolve("gojo.txt");
+        seedDataFile(dataFile, taskCount);
+        GojoEngine engine = new GojoEngine(dataFile.toString());
+        LoadBenchmark generator = new LoadBenchmark(seed, mix, taskCount);
+
+        System.out.println("# Gojo load benchmark");
+        System.out.println("settings: " + settings);
+        System.out.println("java:     " + System.getProperty("java.vm.name") + " "
+                + System.getProperty("java.runtime.version"));
+        System.out.println("machine:  " + System.getProperty("os.name") + " " + System.getProperty("os.arch") + ", "
+                + Runtime.getRuntime().availableProcessors() + " cpus, max heap "
+                + Runtime.getRuntime().maxMemory() / (1024 * 1024) + " MB");
+        System.out.println("data:     " + dataFile);
+        System.out.println("rerun:    LoadBenchmark " + settings.entrySet().stream()
+                .map(e -> e.getKey() + "=" + e.getValue()).collect(Collectors.joining(" ")));
+
+        for (int i = 0; i < warmup; i++) {
+            engine.execute(generator.next(engine.getTasks().size()));
+        }
+
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        long[] nanos = new long[commands];
+        Map<String, Integer> counts = new LinkedHashMap<>();
+        int errors = 0;
+        long allocatedBefore = threads.getThreadAllocatedBytes(threadId);
+        long start = System.nanoTime();
+        for (int i = 0; i < commands; i++) {
+            String input = generator.next(engine.getTasks().size());
+            long before = System.nanoTime();
+            CommandResult result = engine.execute(input);
+            nanos[i] = System.nanoTime() - before;
+            counts.merge(input.split(" ", 2)[0], 1, Integer::sum);
+            if (result.isError() || result.getLines().contains("Cannot add more than 100 items")) {
+                errors++;
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+        long allocated = threads.getThreadAllocatedBytes(threadId) - allocatedBefore;
+
+        Arrays.sort(nanos);
+        double seconds = elapsed / 1e9;
+        System.out.println("commands: " + counts + ", errors " + errors + ", final size "
+                + engine.getTasks().size());
+        System.out.printf("throughput: %.0f commands/s over %.2f s%n", commands / seconds, seconds);
+        System.out.printf("latency:    p50 %s, p90 %s, p99 %s, p99.9 %s, max %s%n", percentile(nanos, 50),
+                percentile(nanos, 90), percentile(nanos, 99), percentile(nanos, 99.9), micros(nanos[commands - 1]));
+        System.out.printf("allocation: %.1f MB/s, %d bytes/command%n", allocated / seconds / (1024 * 1024),
+                allocated / commands);
+    }
+
+    /**
+     * Parses a mix such as "todo:20,find:30" into weights by command word.
+     */
+    private static Map<String, Integer> parseMix(String text) {
+        Map<String, Integer> mix = new LinkedHashMap<>();
+        for (String part : text.split(",")) {
+            String[] pair = part.trim().split(":");
+            mix.put(pair[0].toLowerCase(), Integer.parseInt(pair[1]));
+        }
+        return mix;
+    }
+
+    /**
+     * Returns the next command of the stream for a list of the given size.
+     */
+    private String next(int size) {
+        int pick = random.nextInt(totalWeight);
+        String kind = null;
+        for (Map.Entry<String, Integer> entry : mix.entrySet()) {
+            pick -= entry.getValue();
+            if (pick < 0) {
+                kind = entry.getKey();
+                break;
+            }
+        }
+        boolean isAdd = kind.equals("todo") || kind.equals("deadline") || kind.equals("event");
+        if (isAdd && size > targetSize) {
+            kind = "delete";
+        } else if (kind.equals("delete") && size < targetSize) {
+            kind = "todo";
+        }
+        switch (kind) {
+            case "todo":
+                return "todo " + description();
+            case "deadline":
+                return "deadline " + description() + " /by " + date() + " " + time();
+            case "event":
+                LocalDate day = date();
+                return "event " + description() + " /from " + day + " 0900 /to " + day + " 1100";
+            case "mark":
+                return size == 0 ? "list" : "mark " + (random.nextInt(size) + 1);
+            case "delete":
+                return size == 0 ? "list" : "delete " + (random.nextInt(size) + 1);
+            case "find":
+                return "find " + WORDS[random.nextInt(WORDS.length)];
+            case "schedule":
+                return "schedule " + date();
+            case "list":
+                return random.nextInt(4) == 0 ? "list " + TAGS[random.nextInt(TAGS.length)] : "list";
+            default:
+                throw new IllegalArgumentException("Unknown command in mix: " + kind);
+        }
+    }
+
+    private String description() {
+        String text = WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)];
+        return random.nextInt(3) == 0 ? text + " " + TAGS[random.nextInt(TAGS.length)] : text;
+    }
+
+    private LocalDate date() {
+        return FIRST_DAY.plusDays(random.nextInt(DAYS_SPANNED));
+    }
+
+    private String time() {
+        return String.format("%02d%02d", random.nextInt(24), random.nextInt(4) * 15);
+    }
+
+    private static void seedDataFile(Path file, int taskCount) throws IOException {
+        try (BufferedWriter out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            for (int i = 0; i < taskCount; i++) {
+                LocalDateTime due = FIRST_DAY.atTime(12, 0).plusHours(i * 7L);
+                Task task = i % 3 == 0 ? new Todo("seeded task " + i)
+                        : i % 3 == 1 ? new Deadline("seeded report " + i, due)
+                        : new Event("seeded meeting " + i, due, due.plusHours(1));
+                out.write(task.toFileFormat());
+                out.newLine();
+            }
+        }
+    }
+
+    private static String percentile(long[] sorted, double percent) {
+        int index = (int) Math.ceil(percent / 100 * sorted.length) - 1;
+        return micros(sorted[Math.max(0, Math.min(sorted.length - 1, index))]);
+    }
+
+    private static String micros(long nanos) {
+        return String.format("%.1f us", nanos / 1000.0);
+    }
+}
@@ -0,0 +1,62 @@
+package gojo;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+public class QueryCacheTest {
+
+    private static void cacheFind(QueryCache cache, TaskList taskList, String keyword) {
+        List<Task> result = taskList.findTasks(keyword);
+        cache.put("FIND " + keyword, List.of(String.valueOf(result.size())), result,
+                t -> t.description.contains(keyword));
+    }
+
+    @Test
+    public void markAsDone_dependentResult_isInvalidated() throws ChatbotExceptions {
+        TaskList taskList = new TaskList();
+        QueryCache cache = new QueryCache(8);
+        taskList.addListener(cache);
+        taskList.add(new Todo("read book"));
+        taskList.add(new Todo("write code"));
+        cacheFind(cache, taskList, "book");
+
+        taskList.markAsDone(1);
+        assertNotNull(cache.get("FIND book"));
+
+        taskList.markAsDone(0);
+        assertNull(cache.get("FIND book"));
+    }
+
+    @Test
+    public void add_matchingTask_invalidatesOnlyAffectedResults() {
+        TaskList taskList = new TaskList();
+        QueryCache cache = new QueryCache(8);
+        taskList.addListener(cache);
+        taskList.add(new Todo("read book"));
+        cacheFind(cache, taskList, "book");
+        cacheFind(cache, taskList, "gym");
+
+        taskList.add(new Todo("gym session"));
+        assertNotNull(cache.get("FIND book"));
+        assertNull(cache.get("FIND gym"));
+    }
+
+    @Test
+    public void put_overCapacity_evictsLeastRecentlyUsed() {
+        TaskList taskList = new TaskList();
+        QueryCache cache = new QueryCache(2);
+        cacheFind(cache, taskList, "a");
+        cacheFind(cache, taskList, "b");
+        cache.get("FIND a");
+        cacheFind(cache, taskList, "c");
+
+        assertNotNull(cache.get("FIND a"));
+        assertNull(cache.get("FIND b"));
+        assertEquals(List.of("0"), cache.get("FIND c"));
+    }
+}
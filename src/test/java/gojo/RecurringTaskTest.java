@@ -0,0 +1,48 @@
+package gojo;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class RecurringTaskTest {
+
+    @Test
+    public void occurrencesBetween_weeklyRule_onlyExpandsWindow() throws ChatbotExceptions {
+        RecurringTask standup = new RecurringTask("standup", "2019-12-02 0900", "week", "2020-12-31");
+
+        List<LocalDateTime> result = standup.occurrencesBetween(LocalDate.of(2020, 3, 1), LocalDate.of(2020, 3, 31));
+        assertEquals(5, result.size());
+        assertEquals(LocalDateTime.of(2020, 3, 2, 9, 0), result.get(0));
+        assertEquals(LocalDateTime.of(2020, 3, 30, 9, 0), result.get(4));
+    }
+
+    @Test
+    public void occurrencesBetween_monthlyRule_doesNotDriftAfterShortMonth() throws ChatbotExceptions {
+        RecurringTask report = new RecurringTask("report", "2020-01-31 1700", "month", "2020-12-31");
+
+        assertTrue(report.occursOn(LocalDate.of(2020, 2, 29)));
+        assertTrue(report.occursOn(LocalDate.of(2020, 3, 31)));
+        assertFalse(report.occursOn(LocalDate.of(2020, 3, 29)));
+    }
+
+    @Test
+    public void nextOccurrence_afterUntil_returnsNull() throws ChatbotExceptions {
+        RecurringTask standup = new RecurringTask("standup", "2019-12-02 0900", "week", "2019-12-20");
+
+        assertEquals(LocalDateTime.of(2019, 12, 9, 9, 0), standup.nextOccurrence(LocalDateTime.of(2019, 12, 3, 0, 0)));
+        assertNull(standup.nextOccurrence(LocalDateTime.of(2019, 12, 21, 0, 0)));
+    }
+
+    @Test
+    public void testFileFormat() throws ChatbotExceptions {
+        RecurringTask standup = new RecurringTask("standup", "2019-12-02 0900", "weekly", "2020-03-01");
+        assertEquals("R | 0 | standup | 2019-12-02 0900 | WEEK | 2020-03-01 2359", standup.toFileFormat());
+    }
+}
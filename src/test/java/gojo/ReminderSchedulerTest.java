@@ -0,0 +1,66 @@
+package gojo;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ReminderSchedulerTest {
+    private static final LocalDateTime DUE = LocalDateTime.of(2099, 1, 10, 12, 0);
+
+    @Test
+    public void fire_eachLeadTime_sendsOneReminder() throws ChatbotExceptions {
+        List<String> sent = new ArrayList<>();
+        try (ReminderScheduler scheduler = new ReminderScheduler(ReminderScheduler.parseLeadTimes("1h 1d"),
+                sent::add)) {
+            TaskList taskList = new TaskList();
+            taskList.addListener(scheduler);
+            taskList.add(new Deadline("return book", DUE));
+
+            assertEquals(DUE.minusDays(1), scheduler.getNextReminder());
+            assertEquals(0, scheduler.fire(DUE.minusDays(2)));
+            assertEquals(1, scheduler.fire(DUE.minusDays(1)));
+            assertTrue(sent.get(0).contains("return book") && sent.get(0).contains("in 1 day"));
+            assertEquals(DUE.minusHours(1), scheduler.getNextReminder());
+            assertEquals(1, scheduler.fire(DUE));
+            assertNull(scheduler.getNextReminder());
+        }
+    }
+
+    @Test
+    public void markAsDone_pendingReminders_areDropped() throws ChatbotExceptions {
+        try (ReminderScheduler scheduler = new ReminderScheduler(List.of(Duration.ofHours(1)), message -> { })) {
+            TaskList taskList = new TaskList();
+            taskList.addListener(scheduler);
+            taskList.add(new Event("meeting", DUE, DUE.plusHours(2)));
+
+            taskList.markAsDone(0);
+            assertNull(scheduler.getNextReminder());
+            taskList.markAsNotDone(0);
+            assertEquals(DUE.minusHours(1), scheduler.getNextReminder());
+        }
+    }
+
+    @Test
+    public void fire_recurringTask_queuesNextOccurrence() throws ChatbotExceptions {
+        try (ReminderScheduler scheduler = new ReminderScheduler(List.of(Duration.ZERO), message -> { })) {
+            scheduler.taskAdded(new RecurringTask("gym", DUE, Frequency.WEEK, DUE.plusWeeks(4)));
+
+            assertEquals(DUE, scheduler.getNextReminder());
+            scheduler.fire(DUE);
+            assertEquals(DUE.plusWeeks(1), scheduler.getNextReminder());
+        }
+    }
+
+    @Test
+    public void parseLeadTimes_invalidUnit_throws() {
+        assertThrows(ChatbotExceptions.class, () -> ReminderScheduler.parseLeadTimes("3y"));
+    }
+}
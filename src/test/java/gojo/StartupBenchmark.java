@@ -0,0 +1,131 @@
+package gojo;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Measures how long Gojo takes from launching the JVM to being ready for its
+ * first command.
+ * <p>
+ * Gojo only prints its "You: " prompt at a terminal, so with piped input the
+ * end of the welcome message, where the prompt would appear, marks readiness.
+ * </p>
+ * <p>
+ * Each run starts a fresh JVM on the application jar in a scratch directory,
+ * optionally seeded with a data file of the given size, times the first
+ * prompt, then types "bye". The default launch is compared with the
+ * startup-optimized one, which uses the class data sharing archive built by
+ * the {@code cdsArchive} Gradle task when it exists.
+ * </p>
+ * <p>
+ * Run it with {@code ./gradlew startupBenchmark}, or directly with the
+ * arguments {@code <jar> <archive> [runs] [tasks]}.
+ * </p>
+ */
+public class StartupBenchmark {
+    // The last line of the welcome message, after which the first command is read.
+    private static final String PROMPT = "What would you like to do?";
+    private static final int DEFAULT_RUNS = 10;
+    private static final int DEFAULT_TASKS = 1000;
+
+    /**
+     * Runs the benchmark and prints the timings of both launch modes.
+     *
+     * @param args The application jar, the CDS archive, and optionally the
+     *             number of runs per mode and the number of tasks to seed.
+     * @throws Exception If a run cannot be started or does not reach the prompt.
+     */
+    public static void main(String[] args) throws Exception {
+        if (args.length < 2) {
+            System.out.println("Usage: StartupBenchmark <jar> <archive> [runs] [tasks]");
+            return;
+        }
+        String jar = new File(args[0]).getAbsolutePath();
+        File archive = new File(args[1]).getAbsoluteFile();
+        int runs = args.length > 2 ? Integer.parseInt(args[2]) : DEFAULT_RUNS;
+        int taskCount = args.length > 3 ? Integer.parseInt(args[3]) : DEFAULT_TASKS;
+
+        Path workDir = Files.createTempDirectory("gojo-startup");
+        seedDataFile(workDir.resolve("data").resolve("gojo.txt"), taskCount);
+        String java = Paths.get(System.getProperty("java.home"), "bin", "java").toString();
+
+        System.out.println("Time to first prompt, " + runs + " runs each, " + taskCount + " tasks in the data file");
+        report("default", measure(List.of(java, "-cp", jar, "gojo.Gojo"), workDir, runs));
+
+        List<String> fast = new ArrayList<>(List.of(java, "-XX:TieredStopAtLevel=1", "-Xshare:auto"));
+        if (archive.exists()) {
+            fast.add("-XX:SharedArchiveFile=" + archive);
+        } else {
+            System.out.println("(no CDS archive at " + archive + "; run ./gradlew cdsArchive first)");
+        }
+        fast.addAll(List.of("-cp", jar, "gojo.Gojo"));
+        report("optimized", measure(fast, workDir, runs));
+    }
+
+    private static void seedDataFile(Path file, int taskCount) throws IOException {
+        Files.createDirectories(file.getParent());
+        try (BufferedWriter out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            for (int i = 0; i < taskCount; i++) {
+                Task task = i % 2 == 0
+                        ? new Todo("task " + i)
+                        : new Deadline("task " + i, LocalDateTime.of(2030, 1, 1, 12, 0).plusHours(i));
+                out.write(task.toFileFormat());
+                out.newLine();
+            }
+        }
+    }
+
+    private static long[] measure(List<String> command, Path workDir, int runs) throws Exception {
+        long[] nanos = new long[runs];
+        for (int i = 0; i < runs; i++) {
+            long start = System.nanoTime();
+            Process process = new ProcessBuilder(command).directory(workDir.toFile())
+                    .redirectErrorStream(true).start();
+            awaitPrompt(process.getInputStream());
+            nanos[i] = System.nanoTime() - start;
+
+            OutputStream in = process.getOutputStream();
+            in.write("bye\n".getBytes(StandardCharsets.UTF_8));
+            in.flush();
+            process.getInputStream().transferTo(OutputStream.nullOutputStream());
+            process.waitFor();
+        }
+        return nanos;
+    }
+
+    private static void awaitPrompt(InputStream out) throws IOException {
+        byte[] prompt = PROMPT.getBytes(StandardCharsets.UTF_8);
+        int matched = 0;
+        int b;
+        while ((b = out.read()) != -1) {
+            matched = b == prompt[matched] ? matched + 1 : (b == prompt[0] ? 1 : 0);
+            if (matched == prompt.length) {
+                return;
+            }
+        }
+        throw new IOException("Gojo exited before showing a prompt");
+    }
+
+    private static void report(String mode, long[] nanos) {
+        long[] sorted = nanos.clone();
+        Arrays.sort(sorted);
+        List<Long> millis = new ArrayList<>();
+        for (long n : sorted) {
+            millis.add(n / 1_000_000);
+        }
+        System.out.printf("%-10s min %4d ms, median %4d ms, max %4d ms%n", mode, Collections.min(millis),
+                millis.get(millis.size() / 2), Collections.max(millis));
+    }
+}
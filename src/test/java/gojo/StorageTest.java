@@ -0,0 +1,105 @@
+package gojo;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class StorageTest {
+
+    private static List<String> displayed(List<Task> tasks) {
+        List<String> shown = new ArrayList<>();
+        for (Task task : tasks) {
+            shown.add(task.toString());
+        }
+        return shown;
+    }
+
+    @Test
+    public void decodeRecord_encodedTask_roundTrips() throws ChatbotExceptions {
+        Task deadline = new Deadline("return book", "2019-12-02 1800");
+        String line = Storage.encodeRecord(deadline);
+
+        assertEquals(deadline.toFileFormat(), line.substring(9));
+        assertEquals(deadline.toString(), Storage.decodeRecord(line).toString());
+    }
+
+    @Test
+    public void decodeRecord_legacyLineWithoutChecksum_isAccepted() throws ChatbotExceptions {
+        assertEquals("[T][X] read book", Storage.decodeRecord("T | 1 | read book").toString());
+    }
+
+    @Test
+    public void decodeRecord_damagedLines_reportKind() {
+        String line = Storage.encodeRecord(new Todo("read book"));
+
+        CorruptRecordException edited = assertThrows(CorruptRecordException.class,
+                () -> Storage.decodeRecord(line.replace("read", "lend")));
+        assertEquals(CorruptRecordException.Kind.CHECKSUM_MISMATCH, edited.getKind());
+
+        CorruptRecordException truncated = assertThrows(CorruptRecordException.class,
+                () -> Storage.decodeRecord("E | 0 | meeting | 2019-12-01 2359"));
+        assertEquals(CorruptRecordException.Kind.TRUNCATED, truncated.getKind());
+
+        CorruptRecordException badDate = assertThrows(CorruptRecordException.class,
+                () -> Storage.decodeRecord("D | 0 | return book | someday"));
+        assertEquals(CorruptRecordException.Kind.BAD_DATE, badDate.getKind());
+
+        CorruptRecordException relativeDate = assertThrows(CorruptRecordException.class,
+                () -> Storage.decodeRecord("D | 0 | return book | in 2 hours"));
+        assertEquals(CorruptRecordException.Kind.BAD_DATE, relativeDate.getKind());
+    }
+
+    @Test
+    public void decodeRecord_withDeduplicator_sharesRepeatedValues() throws ChatbotExceptions {
+        LoadDeduplicator deduplicator = new LoadDeduplicator(2);
+        Deadline first = (Deadline) Storage.decodeRecord("D | 0 | weekly report | 2030-01-18 1700", deduplicator);
+        Deadline second = (Deadline) Storage.decodeRecord("D | 1 | weekly report | 2030-01-18 1700", deduplicator);
+
+        assertSame(first.description, second.description);
+        assertSame(first.by, second.by);
+        assertEquals("[D][X] weekly report (by: Jan 18 2030 17:00)", second.toString());
+        assertEquals(40 + 13 + 72, deduplicator.getBytesSaved());
+
+        // Only two descriptions fit, so the least recently used one is dropped
+        Storage.decodeRecord("T | 0 | standup", deduplicator);
+        Storage.decodeRecord("T | 0 | lunch", deduplicator);
+        Task again = Storage.decodeRecord("T | 0 | weekly report", deduplicator);
+        assertNotSame(first.description, again.description);
+    }
+
+    @Test
+    public void load_compressedFile_roundTrips(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("gojo.txt.gz");
+        Storage storage = new Storage(file.toString());
+        List<Task> tasks = List.of(new Todo("read book"),
+                new Deadline("return book", LocalDateTime.of(2030, 1, 17, 18, 0)));
+        storage.save(tasks);
+
+        byte[] bytes = Files.readAllBytes(file);
+        assertEquals(0x1f, bytes[0] & 0xff);
+        assertEquals(0x8b, bytes[1] & 0xff);
+        assertEquals(displayed(tasks), displayed(new Storage(file.toString()).load()));
+    }
+
+    @Test
+    public void loadArchive_afterTwoArchives_readsBothInOrder(@TempDir Path dir) throws ChatbotExceptions {
+        Storage storage = new Storage(dir.resolve("gojo.txt").toString());
+        Todo first = new Todo("read book");
+        Todo second = new Todo("return book");
+        Todo third = new Todo("write code");
+        storage.archive(List.of(first));
+        storage.archive(List.of(second, third));
+
+        assertEquals(displayed(List.of(first, second, third)), displayed(storage.loadArchive()));
+    }
+}
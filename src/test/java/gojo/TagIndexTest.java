@@ -0,0 +1,65 @@
+package gojo;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TagIndexTest {
+
+    @Test
+    public void constructor_tagsAndFields_parsedFromDescription() {
+        Task task = new Todo("fix dns #Infra #urgent owner=alice");
+
+        assertEquals(Set.of("infra", "urgent"), task.getTags());
+        assertEquals(Map.of("owner", "alice"), task.getFields());
+        assertTrue(new Todo("read book").getTags().isEmpty());
+    }
+
+    @Test
+    public void query_tagsAndStatus_returnsListPositions() throws ChatbotExceptions {
+        TaskList taskList = new TaskList();
+        TagIndex index = new TagIndex(taskList.getAllTasks());
+        taskList.addListener(index);
+        taskList.add(new Todo("fix dns #infra #urgent"));
+        taskList.add(new Todo("write docs #infra"));
+        taskList.add(new Todo("patch kernel #infra #urgent owner=bob"));
+        taskList.markAsDone(0);
+
+        List<TagIndex.Match> matches = index.query(List.of("#infra", "#urgent"), false);
+        assertEquals(1, matches.size());
+        assertEquals(2, matches.get(0).getIndex());
+
+        taskList.delete(1);
+        matches = index.query(List.of(TagIndex.fieldTerm("Owner", "bob")), null);
+        assertEquals(1, matches.get(0).getIndex());
+        assertTrue(index.query(List.of("#missing"), null).isEmpty());
+    }
+
+    @Test
+    public void taskRemoved_manyDeletions_compactsAndKeepsPositions() throws ChatbotExceptions {
+        TaskList taskList = new TaskList();
+        TagIndex index = new TagIndex(taskList.getAllTasks());
+        taskList.addListener(index);
+        List<Task> added = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            Task task = new Todo("task " + i + (i % 3 == 0 ? " #three" : ""));
+            added.add(task);
+            taskList.add(task);
+        }
+        for (int i = 0; i < 150; i++) {
+            taskList.delete(0);
+        }
+
+        List<TagIndex.Match> matches = index.query(List.of("#three"), null);
+        for (TagIndex.Match match : matches) {
+            assertEquals(match.getTask(), taskList.get(match.getIndex()));
+        }
+        assertEquals(17, matches.size());
+    }
+}
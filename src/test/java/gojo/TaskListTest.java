@@ -1,6 +1,7 @@
 package gojo;
 
 import org.junit.jupiter.api.Test;
+import java.util.ArrayList;
 import java.util.List;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
@@ -27,4 +28,30 @@ public class TaskListTest {
         List<Task> result = taskList.findTasks("gym");
         assertEquals(0, result.size());
     }
+
+    @Test
+    public void restore_afterChanges_tellsListenersOfEachStateChange() throws ChatbotExceptions {
+        TaskList taskList = new TaskList();
+        taskList.add(new Todo("read book"));
+        Transaction transaction = new Transaction(taskList);
+        taskList.markAsDone(0);
+        taskList.add(new Todo("write code"));
+
+        List<String> seen = new ArrayList<>();
+        taskList.addListener(new TaskListener() {
+            @Override
+            public void taskAdded(Task task) {
+                seen.add("added " + task);
+            }
+
+            @Override
+            public void taskRemoved(Task task) {
+                seen.add("removed " + task);
+            }
+        });
+        transaction.rollback(taskList);
+
+        assertEquals(List.of("removed [T][X] read book", "removed [T][ ] write code", "added [T][ ] read book"),
+                seen);
+    }
 }
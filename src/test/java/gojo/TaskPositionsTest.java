@@ -0,0 +1,34 @@
+package gojo;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class TaskPositionsTest {
+
+    @Test
+    public void remove_manyTasks_keepsPositionsOfTheRest() {
+        TaskPositions positions = new TaskPositions();
+        List<Task> expected = new ArrayList<>();
+        // Enough adds and removes to renumber the slots several times
+        for (int i = 0; i < 200; i++) {
+            Task task = new Todo("task " + i);
+            positions.add(task);
+            expected.add(task);
+            if (i % 3 == 2) {
+                Task removed = expected.get(expected.size() / 2);
+                assertEquals(expected.size() / 2, positions.remove(removed));
+                expected.remove(removed);
+            }
+        }
+
+        assertEquals(expected, positions.getTasks());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(i, positions.indexOf(expected.get(i)));
+        }
+        assertEquals(-1, positions.remove(new Todo("never added")));
+    }
+}
@@ -0,0 +1,65 @@
+package gojo;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class TaskStatisticsTest {
+    private static final LocalDate TODAY = LocalDate.of(2030, 1, 16);
+
+    @Test
+    public void summarize_afterChanges_countsByTypeStatusAndDay() throws ChatbotExceptions {
+        TaskList tasks = new TaskList();
+        TaskStatistics statistics = new TaskStatistics(tasks.getAllTasks(), TODAY);
+        tasks.addListener(statistics);
+        tasks.add(new Todo("read book"));
+        tasks.add(new Deadline("report", TODAY.minusDays(2).atTime(9, 0)));
+        tasks.add(new Deadline("essay", TODAY.atTime(18, 0)));
+        tasks.add(new Event("trip", TODAY.plusDays(3).atTime(8, 0), TODAY.plusDays(4).atTime(8, 0)));
+        tasks.add(new Deadline("taxes", TODAY.plusDays(30).atTime(12, 0)));
+        tasks.markAsDone(0);
+        tasks.markAsDone(0);
+        tasks.markAsDone(4);
+        tasks.markAsNotDone(4);
+        tasks.delete(2);
+
+        assertEquals(List.of("Here is a summary of your list:",
+                "  4 tasks: 3 pending, 1 done",
+                "  1 todos (0 pending), 2 deadlines (2 pending), 1 events (1 pending), 0 recurring tasks (0 pending)",
+                "  1 overdue, 0 due today, 1 due in the next 7 days"), statistics.summarize(TODAY));
+    }
+
+    @Test
+    public void rollForward_daysPass_addsTheirTasksToOverdue() throws ChatbotExceptions {
+        TaskList tasks = new TaskList();
+        tasks.add(new Deadline("report", TODAY.atTime(9, 0)));
+        tasks.add(new Deadline("essay", TODAY.plusDays(1).atTime(9, 0)));
+        tasks.add(new Deadline("taxes", TODAY.plusDays(5).atTime(9, 0)));
+        TaskStatistics statistics = new TaskStatistics(tasks.getAllTasks(), TODAY);
+        tasks.addListener(statistics);
+
+        assertEquals(0, statistics.getOverdue(TODAY));
+        statistics.rollForward(TODAY.plusDays(2));
+        assertEquals(2, statistics.getOverdue(TODAY.plusDays(2)));
+        tasks.markAsDone(0);
+        assertEquals(1, statistics.getOverdue(TODAY.plusDays(2)));
+        assertEquals(2, statistics.getOverdue(TODAY.plusDays(6)));
+    }
+
+    @Test
+    public void taskRemoved_afterRollback_uncountsRecordedStatus() throws ChatbotExceptions {
+        TaskList tasks = new TaskList();
+        tasks.add(new Todo("read book"));
+        TaskStatistics statistics = new TaskStatistics(tasks.getAllTasks(), TODAY);
+        tasks.addListener(statistics);
+
+        Transaction transaction = new Transaction(tasks);
+        tasks.markAsDone(0);
+        transaction.rollback(tasks);
+
+        assertEquals("  1 tasks: 1 pending, 0 done", statistics.summarize(TODAY).get(1));
+    }
+}
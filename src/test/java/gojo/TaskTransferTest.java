@@ -0,0 +1,137 @@
+package gojo;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TaskTransferTest {
+    private static final LocalDateTime START = LocalDateTime.of(2030, 1, 16, 9, 0);
+
+    private static List<Task> sampleTasks() throws ChatbotExceptions {
+        List<Task> tasks = new ArrayList<>();
+        tasks.add(new Todo("read book"));
+        tasks.add(new Deadline("return book", START.plusDays(1)));
+        tasks.add(new Event("project meeting", START, START.plusHours(2)));
+        tasks.add(new RecurringTask("water plants", START, Frequency.WEEK, START.plusWeeks(4)));
+        tasks.get(1).markAsDone();
+        tasks.get(2).markAsDone();
+        return tasks;
+    }
+
+    private static List<String> fileFormats(List<Task> tasks) {
+        List<String> formats = new ArrayList<>();
+        for (Task task : tasks) {
+            formats.add(task.toFileFormat());
+        }
+        return formats;
+    }
+
+    private static void assertRoundTrips(Path file) throws ChatbotExceptions {
+        List<Task> tasks = sampleTasks();
+        assertEquals(4, TaskTransfer.exportTasks(tasks, file.toString()));
+        assertEquals(fileFormats(tasks), fileFormats(TaskTransfer.importTasks(file.toString())));
+    }
+
+    @Test
+    public void importTasks_exportedCsv_roundTrips(@TempDir Path dir) throws ChatbotExceptions {
+        assertRoundTrips(dir.resolve("tasks.csv"));
+    }
+
+    @Test
+    public void importTasks_exportedJsonLines_roundTrips(@TempDir Path dir) throws ChatbotExceptions {
+        assertRoundTrips(dir.resolve("tasks.jsonl"));
+    }
+
+    @Test
+    public void importTasks_exportedICalendar_roundTrips(@TempDir Path dir) throws ChatbotExceptions {
+        assertRoundTrips(dir.resolve("tasks.ics"));
+    }
+
+    @Test
+    public void importTasks_csvWithQuotedCommasAndQuotes_keepsThem(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("tasks.csv");
+        List<Task> tasks = List.of(new Todo("buy eggs, milk and \"real\" bread"));
+        TaskTransfer.exportTasks(tasks, file.toString());
+
+        assertTrue(Files.readString(file).contains("\"buy eggs, milk and \"\"real\"\" bread\""));
+        assertEquals("buy eggs, milk and \"real\" bread",
+                TaskTransfer.importTasks(file.toString()).get(0).description);
+    }
+
+    @Test
+    public void importTasks_icsWithLongSummary_foldsAndUnfolds(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("tasks.ics");
+        String description = "prepare the quarterly report, including every figure from the sales, "
+                + "marketing and support teams";
+        TaskTransfer.exportTasks(List.of(new Todo(description)), file.toString());
+
+        boolean isFolded = false;
+        for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+            assertTrue(line.getBytes(StandardCharsets.UTF_8).length <= 75);
+            isFolded |= line.startsWith(" ");
+        }
+        assertTrue(isFolded);
+        assertEquals(description, TaskTransfer.importTasks(file.toString()).get(0).description);
+    }
+
+    @Test
+    public void importTasks_badRecord_reportsLineNumber(@TempDir Path dir) throws Exception {
+        Path csv = dir.resolve("tasks.csv");
+        Files.writeString(csv, "type,done,description,start,end,every,until\n"
+                + "T,0,read book,,,,\n"
+                + "D,0,return book,,,,\n");
+        ChatbotExceptions missingStart = assertThrows(ChatbotExceptions.class,
+                () -> TaskTransfer.importTasks(csv.toString()));
+        assertEquals("OOPS!!! Line 3 is not a valid task: the start field is missing", missingStart.getMessage());
+
+        Path jsonl = dir.resolve("tasks.jsonl");
+        Files.writeString(jsonl, "{\"type\":\"T\",\"done\":false,\"description\":\"read book\"}\n"
+                + "{\"type\":\"T\",\"done\":false,\"description\":\"a | 1 | b\"}\n");
+        ChatbotExceptions separator = assertThrows(ChatbotExceptions.class,
+                () -> TaskTransfer.importTasks(jsonl.toString()));
+        assertEquals("OOPS!!! Line 2 is not a valid task: the description contains '|'", separator.getMessage());
+    }
+
+    @Test
+    public void importTasks_icsAllDayEvent_endsOnItsLastDay(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("tasks.ics");
+        Files.writeString(file, "BEGIN:VCALENDAR\r\nBEGIN:VEVENT\r\nSUMMARY:holiday\r\n"
+                + "DTSTART;VALUE=DATE:20300101\r\nDTEND;VALUE=DATE:20300102\r\nEND:VEVENT\r\nEND:VCALENDAR\r\n");
+        Event holiday = (Event) TaskTransfer.importTasks(file.toString()).get(0);
+        assertEquals(LocalDateTime.of(2030, 1, 1, 0, 0), holiday.from);
+        assertEquals(LocalDateTime.of(2030, 1, 1, 23, 59), holiday.to);
+
+        Path again = dir.resolve("again.ics");
+        TaskTransfer.exportTasks(List.of(holiday), again.toString());
+        assertEquals(fileFormats(List.of(holiday)), fileFormats(TaskTransfer.importTasks(again.toString())));
+    }
+
+    @Test
+    public void importTasks_csvUnterminatedQuote_reportsItsLine(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("tasks.csv");
+        StringBuilder text = new StringBuilder("T,0,read book,,,,\nT,0,\"stray quote,,,,\n");
+        for (int i = 0; i < 2000; i++) {
+            text.append("T,0,task ").append(i).append(",,,,\n");
+        }
+        Files.writeString(file, text);
+
+        ChatbotExceptions e = assertThrows(ChatbotExceptions.class, () -> TaskTransfer.importTasks(file.toString()));
+        assertEquals("OOPS!!! Line 2 is not a valid task: unterminated quote", e.getMessage());
+    }
+
+    @Test
+    public void formatFor_unknownExtension_throwsException() {
+        ChatbotExceptions e = assertThrows(ChatbotExceptions.class, () -> TaskTransfer.formatFor("tasks.xml"));
+        assertEquals("OOPS!!! I can only import and export .csv, .jsonl and .ics files.", e.getMessage());
+    }
+}
@@ -0,0 +1,56 @@
+package gojo;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TrigramIndexTest {
+
+    @Test
+    public void search_misspeltWord_ranksClosestFirst() {
+        Task report = new Todo("write report");
+        Task repo = new Todo("clone repo");
+        Task gym = new Todo("gym session");
+        TrigramIndex index = new TrigramIndex(List.of(gym, repo, report));
+
+        assertEquals(List.of(report, repo), index.search("reprot"));
+        assertEquals(List.of(repo), index.search("Repo"));
+        assertTrue(index.search("quantum").isEmpty());
+    }
+
+    @Test
+    public void candidates_taskSharingOneTrigram_isNeverScored() {
+        Task docs = new Todo("write documentation");
+        Task dog = new Todo("walk the dog");
+        TrigramIndex index = new TrigramIndex(List.of(docs, dog));
+
+        // "documnetation" shares 9 of its 13 trigrams with "documentation" but only "$do" with "dog"
+        String[] query = {"documnetation"};
+        assertTrue(index.candidates(query).contains(docs));
+        assertFalse(index.candidates(query).contains(dog));
+        assertEquals(List.of(docs), index.search("documnetation"));
+    }
+
+    @Test
+    public void delete_indexedTask_isNoLongerFound() throws ChatbotExceptions {
+        TaskList taskList = new TaskList();
+        TrigramIndex index = new TrigramIndex(taskList.getAllTasks());
+        taskList.addListener(index);
+        taskList.add(new Todo("write report"));
+
+        assertEquals(1, index.search("reprot").size());
+        taskList.delete(0);
+        assertTrue(index.search("reprot").isEmpty());
+    }
+
+    @Test
+    public void boundedDistance_beyondLimit_stopsAtLimitPlusOne() {
+        assertEquals(1, TrigramIndex.boundedDistance("reprot", "report", 2));
+        assertEquals(3, TrigramIndex.boundedDistance("kitten", "sitting", 2));
+        assertEquals(3, TrigramIndex.boundedDistance("a", "abcdef", 2));
+    }
+}
@@ -0,0 +1,52 @@
+package gojo;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class WorkspacesTest {
+
+    @Test
+    public void get_overCount_evictsLeastRecentlyUsed(@TempDir Path dir) throws ChatbotExceptions {
+        Workspaces workspaces = new Workspaces(dir.resolve("gojo.txt").toString(), 2, Long.MAX_VALUE, 8);
+        workspaces.get("a");
+        workspaces.get("b");
+        workspaces.get("a");
+        workspaces.get("c");
+
+        assertTrue(workspaces.isLoaded("a"));
+        assertFalse(workspaces.isLoaded("b"));
+        assertTrue(workspaces.isLoaded("c"));
+    }
+
+    @Test
+    public void findAll_tasksInSeveralWorkspaces_searchesLoadedAndStored(@TempDir Path dir)
+            throws ChatbotExceptions {
+        Workspaces workspaces = new Workspaces(dir.resolve("gojo.txt").toString(), 1, Long.MAX_VALUE, 8);
+        Workspace home = workspaces.get("home");
+        home.getTasks().add(new Todo("read book"));
+        home.getStorage().save(home.getTasks().getAllTasks());
+        Workspace work = workspaces.get("work");
+        work.getTasks().add(new Todo("book flights"));
+        work.getStorage().save(work.getTasks().getAllTasks());
+
+        assertFalse(workspaces.isLoaded("home"));
+        Map<String, List<Task>> found = workspaces.findAll("book");
+        assertEquals(List.of("home", "work"), List.copyOf(found.keySet()));
+        assertEquals(List.of("gojo", "home", "work"), workspaces.names());
+    }
+
+    @Test
+    public void get_invalidName_throws(@TempDir Path dir) {
+        Workspaces workspaces = new Workspaces(dir.resolve("gojo.txt").toString(), 2, Long.MAX_VALUE, 8);
+        assertThrows(ChatbotExceptions.class, () -> workspaces.get("../etc"));
+    }
+}